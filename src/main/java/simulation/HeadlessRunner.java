@@ -0,0 +1,123 @@
+package simulation;
+
+import simulation.config.MapSize;
+import simulation.config.MoveEngine;
+import simulation.config.SimulationConfig;
+import simulation.config.SimulationConfigFactory;
+import simulation.console.PrintUtil;
+import simulation.controller.Controller;
+import simulation.controller.TickScheduler;
+import simulation.path.BFSPathFinder;
+import simulation.path.BoundedPathFinder;
+import simulation.path.DistanceFieldPathFinder;
+import simulation.path.HierarchicalPathFinder;
+import simulation.path.IncrementalDistanceFieldPathFinder;
+import simulation.path.IndexedBFSPathFinder;
+import simulation.path.PathFinder;
+import simulation.path.ReachabilityPathFinder;
+import simulation.path.SearchLimits;
+import simulation.renderer.NoOpRenderer;
+
+import java.time.Instant;
+
+/**
+ * Runs a simulation unattended, as fast as possible and without drawing, then prints the throughput
+ * and the time spent in every phase of a turn.
+ * Run: {@code java -cp target/classes simulation.HeadlessRunner [preset 1-3] [turns] [seconds] [path finder] [seed]
+ * [grass] [parallelism] [move engine] [creature attributes] [pool capacity]}, path finder one of {@code bfs,
+ * indexed, reachable, batch, field, incremental, bounded, hpa}; without a seed a fresh one is drawn and printed,
+ * so the run can be repeated; grass {@code entities} (default) or {@code layer} for the dense grass layer;
+ * parallelism is the number of workers moving creatures; move engine {@code direct} (default) or {@code intent}
+ * for the reproducible plan/resolve one; creature attributes {@code fields} (default) or {@code shared} for one
+ * shared storage; pool capacity is the number of removed grass and herbivores kept per type for reuse, 0
+ * (default) for no pool.
+ */
+public class HeadlessRunner {
+    private static final int DEFAULT_TURNS = 100_000;
+    private static final long DEFAULT_SECONDS = 60;
+    private static final String DEFAULT_PATH_FINDER = "reachable";
+    private static final SearchLimits BOUNDED_LIMITS = new SearchLimits(12, 400);
+    private static final int GRASS_REGROWTH_TURNS = 10;
+
+    public static void main(String[] args) {
+        MapSize mapSize = Starter.presetFromKey(args.length > 0 ? Integer.parseInt(args[0]) : 3);
+        int turns = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TURNS;
+        long seconds = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SECONDS;
+        String pathFinderName = args.length > 3 ? args[3] : DEFAULT_PATH_FINDER;
+
+        SimulationConfigFactory configFactory = new SimulationConfigFactory();
+        SimulationConfig config = args.length > 4
+                ? configFactory.getSimulationConfig(mapSize, Long.parseLong(args[4]))
+                : configFactory.getSimulationConfig(mapSize);
+        if (args.length > 6) {
+            config = config.withEngineSettings(config.engineSettings().withParallelism(Integer.parseInt(args[6])));
+        }
+        if (args.length > 7) {
+            config = config.withEngineSettings(config.engineSettings().withMoveEngine(moveEngineFromName(args[7])));
+        }
+        if (args.length > 8) {
+            config = config.withEngineSettings(
+                    config.engineSettings().withSharedCreatureStorage(sharedStorageFromName(args[8])));
+        }
+        if (args.length > 9) {
+            config = config.withEngineSettings(
+                    config.engineSettings().withEntityPoolCapacity(Integer.parseInt(args[9])));
+        }
+        if (args.length > 5 && grassLayerFromName(args[5])) {
+            config.worldMap().attachGrassLayer(
+                    config.entityCharacteristics().getGrass().nutrition(), GRASS_REGROWTH_TURNS);
+        }
+        Simulation simulation = new Simulation(config.worldMap(), new NoOpRenderer(), new Controller(), config,
+                pathFinderFromName(pathFinderName), TickScheduler.asFastAsPossible());
+
+        long start = System.nanoTime();
+        int made;
+        try (simulation) {
+            made = simulation.runTurns(turns, Instant.now().plusSeconds(seconds));
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        PrintUtil.printSeed(config.seed());
+        PrintUtil.printHeadlessReport(mapSize, pathFinderName, made, elapsedNanos, simulation.getPhaseTimings());
+        PrintUtil.printPathCacheStats(simulation.getPathCacheStats());
+        PrintUtil.printEntityPoolStats(simulation.getEntityPool());
+    }
+
+    private static boolean grassLayerFromName(String name) {
+        return switch (name) {
+            case "entities" -> false;
+            case "layer" -> true;
+            default -> throw new IllegalArgumentException("unknown grass mode: " + name);
+        };
+    }
+
+    private static boolean sharedStorageFromName(String name) {
+        return switch (name) {
+            case "fields" -> false;
+            case "shared" -> true;
+            default -> throw new IllegalArgumentException("unknown creature attributes mode: " + name);
+        };
+    }
+
+    private static MoveEngine moveEngineFromName(String name) {
+        return switch (name) {
+            case "direct" -> MoveEngine.DIRECT;
+            case "intent" -> MoveEngine.INTENT;
+            default -> throw new IllegalArgumentException("unknown move engine: " + name);
+        };
+    }
+
+    static PathFinder pathFinderFromName(String name) {
+        return switch (name) {
+            case "bfs" -> new BFSPathFinder();
+            case "indexed" -> new IndexedBFSPathFinder();
+            case "reachable" -> new ReachabilityPathFinder(new IndexedBFSPathFinder());
+            case "batch" -> new ReachabilityPathFinder(new IndexedBFSPathFinder(true));
+            case "field" -> new DistanceFieldPathFinder();
+            case "incremental" -> new IncrementalDistanceFieldPathFinder();
+            case "bounded" -> new BoundedPathFinder(BOUNDED_LIMITS);
+            case "hpa" -> new HierarchicalPathFinder();
+            default -> throw new IllegalArgumentException("unknown path finder: " + name);
+        };
+    }
+}
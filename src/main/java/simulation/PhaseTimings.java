@@ -0,0 +1,35 @@
+package simulation;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wall-clock time spent in every phase of a turn (each turn action and rendering), summed over all turns.
+ * Phases are recorded by their position, so recording allocates nothing.
+ */
+public class PhaseTimings {
+    private final List<String> phases;
+    private final long[] nanosByPhase;
+
+    /**
+     * @param phases names of the phases in the order they run
+     */
+    public PhaseTimings(List<String> phases) {
+        this.phases = List.copyOf(phases);
+        this.nanosByPhase = new long[phases.size()];
+    }
+
+    public synchronized void record(int phase, long nanos) {
+        nanosByPhase[phase] += nanos;
+    }
+
+    public synchronized Map<String, Long> getNanosByPhase() {
+        Map<String, Long> nanos = new LinkedHashMap<>();
+        for (int phase = 0; phase < nanosByPhase.length; phase++) {
+            nanos.merge(phases.get(phase), nanosByPhase[phase], Long::sum);
+        }
+        return Collections.unmodifiableMap(nanos);
+    }
+}
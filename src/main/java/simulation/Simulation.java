@@ -3,22 +3,39 @@ package simulation;
 import simulation.actions.*;
 import simulation.console.PrintUtil;
 import simulation.controller.Controller;
+import simulation.controller.TickScheduler;
+import simulation.entity.CreatureStorage;
 import simulation.entity.EntityFactory;
+import simulation.entity.EntityPool;
 import simulation.map.WorldMap;
+import simulation.path.PathCacheStats;
 import simulation.path.PathFinder;
+import simulation.config.EngineSettings;
 import simulation.config.SimulationConfig;
 import simulation.renderer.Renderer;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
-public class Simulation implements Runnable {
+/**
+ * Runs the turns of one map. Close it once done, to stop the workers moving creatures in parallel;
+ * {@link #run()} does so itself when it returns.
+ */
+public class Simulation implements Runnable, AutoCloseable {
     private final WorldMap worldMap;
     private final Renderer renderer;
     private final Controller controller;
+    private final TickScheduler tickScheduler;
 
     private final List<Action> initActions;
     private final List<Action> turnActions;
+    private final MoveAction moveCreaturesAction;
+    private final EntityPool entityPool;
+    private final PhaseTimings phaseTimings;
 
+    private boolean initialized;
     private int turnCounter;
     private volatile boolean running = true;
 
@@ -27,28 +44,86 @@ public class Simulation implements Runnable {
                       Controller controller,
                       SimulationConfig simulationConfig,
                       PathFinder pathFinder) {
+        this(map, renderer, controller, simulationConfig, pathFinder,
+                TickScheduler.fixedRate(TickScheduler.DEFAULT_TURNS_PER_SECOND));
+    }
+
+    public Simulation(WorldMap map,
+                      Renderer renderer,
+                      Controller controller,
+                      SimulationConfig simulationConfig,
+                      PathFinder pathFinder,
+                      TickScheduler tickScheduler) {
         this.worldMap = map;
         this.renderer = renderer;
         this.controller = controller;
+        this.tickScheduler = tickScheduler;
 
-        EntityFactory entityFactory = new EntityFactory(simulationConfig.entityCharacteristics());
-        ActionHelper actionHelper = new ActionHelper(entityFactory);
+        int entityPoolCapacity = simulationConfig.engineSettings().entityPoolCapacity();
+        this.entityPool = entityPoolCapacity > 0 ? new EntityPool(entityPoolCapacity) : null;
+        if (entityPool != null) {
+            map.addListener(entityPool);
+        }
+        CreatureStorage creatureStorage = null;
+        if (simulationConfig.engineSettings().sharedCreatureStorage()) {
+            creatureStorage = new CreatureStorage();
+            map.addListener(creatureStorage);
+        }
+        EntityFactory entityFactory =
+                new EntityFactory(simulationConfig.entityCharacteristics(), creatureStorage, entityPool);
+        SplittableRandom random = new SplittableRandom(simulationConfig.seed());
+        ActionHelper actionHelper = new ActionHelper(entityFactory, random.split());
 
         this.initActions = List.of(
                 new PopulateMapAction(actionHelper, simulationConfig.entityStartValues()));
 
+        this.moveCreaturesAction = createMoveAction(
+                simulationConfig.engineSettings(), pathFinder, random.nextLong(), creatureStorage);
         this.turnActions = List.of(
-                new MoveCreaturesAction(pathFinder),
+                moveCreaturesAction,
                 new KeepPopulationStableAction(actionHelper, simulationConfig.repopulateValues()));
+        this.phaseTimings = new PhaseTimings(phaseNames(turnActions, renderer));
+    }
+
+    /**
+     * Every turn action, then rendering.
+     */
+    private static List<String> phaseNames(List<Action> turnActions, Renderer renderer) {
+        List<String> names = new ArrayList<>(turnActions.size() + 1);
+        for (Action action : turnActions) {
+            names.add(action.getClass().getSimpleName());
+        }
+        names.add(renderer.getClass().getSimpleName());
+        return names;
+    }
+
+    private static MoveAction createMoveAction(EngineSettings engineSettings,
+                                               PathFinder pathFinder,
+                                               long seed,
+                                               CreatureStorage creatureStorage) {
+        int parallelism = engineSettings.parallelism();
+        return switch (engineSettings.moveEngine()) {
+            case DIRECT -> parallelism == EngineSettings.SEQUENTIAL
+                    ? new MoveCreaturesAction(pathFinder, seed)
+                    : new MoveCreaturesAction(pathFinder, seed, parallelism, creatureStorage);
+            case INTENT -> new IntentMoveCreaturesAction(pathFinder, seed, parallelism, creatureStorage);
+        };
     }
 
     @Override
     public void run() {
-        startSimulation();
+        try {
+            startSimulation();
+        } finally {
+            close();
+            PrintUtil.printPathCacheStats(moveCreaturesAction.getPathCacheStats());
+            PrintUtil.printEntityPoolStats(entityPool);
+            PrintUtil.printTickStats(tickScheduler);
+        }
     }
 
     private void startSimulation() {
-        makeTurn(initActions);
+        initialize();
         PrintUtil.printHelp();
 
         while (running) {
@@ -63,9 +138,13 @@ public class Simulation implements Runnable {
                 return;
             }
 
+            tickScheduler.onTurnStart();
             incrementCounter();
             PrintUtil.printStatus(turnCounter);
-            makeTurn(turnActions);
+            makeTurn();
+            if (tickScheduler.onTurnEnd()) {
+                controller.pause();
+            }
             delay();
             if (!running || Thread.currentThread().isInterrupted()) {
                 return;
@@ -74,11 +153,54 @@ public class Simulation implements Runnable {
         }
     }
 
-    private void makeTurn(List<Action> actions) {
-        for (Action action : actions) {
-            action.execute(worldMap);
+    /**
+     * Runs turns on the calling thread without the controller or console output, until {@code turns} turns
+     * are done, the deadline passes or the simulation is stopped. Pacing still follows the tick scheduler.
+     *
+     * @return the number of turns made
+     */
+    public int runTurns(int turns, Instant deadline) {
+        initialize();
+        int made = 0;
+        while (running && made < turns && Instant.now().isBefore(deadline)) {
+            tickScheduler.onTurnStart();
+            incrementCounter();
+            makeTurn();
+            made++;
+            tickScheduler.onTurnEnd();
+            delay();
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
         }
+        return made;
+    }
+
+    /**
+     * Populates the map; turns made before it was called do it themselves.
+     */
+    public void initialize() {
+        if (!initialized) {
+            for (Action action : initActions) {
+                action.execute(worldMap);
+            }
+            renderer.draw();
+            initialized = true;
+        }
+    }
+
+    /**
+     * Runs the turn actions and draws the map, timing every phase into {@link #phaseTimings}.
+     */
+    private void makeTurn() {
+        for (int phase = 0; phase < turnActions.size(); phase++) {
+            long start = System.nanoTime();
+            turnActions.get(phase).execute(worldMap);
+            phaseTimings.record(phase, System.nanoTime() - start);
+        }
+        long start = System.nanoTime();
         renderer.draw();
+        phaseTimings.record(turnActions.size(), System.nanoTime() - start);
     }
 
     private void incrementCounter() {
@@ -87,12 +209,40 @@ public class Simulation implements Runnable {
 
     private void delay() {
         try {
-            Thread.sleep(2000);
+            tickScheduler.awaitNextTick();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
     }
 
+    @Override
+    public void close() {
+        moveCreaturesAction.close();
+    }
+
+    public PhaseTimings getPhaseTimings() {
+        return phaseTimings;
+    }
+
+    public PathCacheStats getPathCacheStats() {
+        return moveCreaturesAction.getPathCacheStats();
+    }
+
+    /**
+     * @return the pool removed entities are recycled through, {@code null} if pooling is off
+     */
+    public EntityPool getEntityPool() {
+        return entityPool;
+    }
+
+    public int getTurnCounter() {
+        return turnCounter;
+    }
+
+    public TickScheduler getTickScheduler() {
+        return tickScheduler;
+    }
+
     public boolean isRunning() {
         return running;
     }
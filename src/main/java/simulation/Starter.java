@@ -3,8 +3,9 @@ package simulation;
 import simulation.console.*;
 import simulation.controller.Controller;
 import simulation.map.WorldMap;
-import simulation.path.BFSPathFinder;
+import simulation.path.IndexedBFSPathFinder;
 import simulation.path.PathFinder;
+import simulation.path.ReachabilityPathFinder;
 import simulation.config.MapSize;
 import simulation.config.SimulationConfig;
 import simulation.config.SimulationConfigFactory;
@@ -48,11 +49,12 @@ public class Starter {
         MapSize mapSize = presetFromKey(userChoose);
         SimulationConfigFactory configFactory = new SimulationConfigFactory();
         SimulationConfig config = configFactory.getSimulationConfig(mapSize);
+        PrintUtil.printSeed(config.seed());
         WorldMap worldMap = config.worldMap();
 
         Renderer renderer = new ConsoleRenderer(worldMap);
         Controller controller = new Controller();
-        PathFinder pathFinder = new BFSPathFinder();
+        PathFinder pathFinder = new ReachabilityPathFinder(new IndexedBFSPathFinder());
         return new Simulation(worldMap, renderer, controller, config, pathFinder);
     }
 
@@ -1,34 +1,44 @@
 package simulation.actions;
 
 import simulation.entity.EntityFactory;
+import simulation.entity.EntityType;
 import simulation.map.Location;
 import simulation.map.WorldMap;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.random.RandomGenerator;
 
 final public class ActionHelper {
     private final EntityFactory entityFactory;
+    private final RandomGenerator random;
 
-    public ActionHelper(EntityFactory entityFactory) {
+    /**
+     * @param random source for placing entities, used by the actions on the simulation thread only
+     */
+    public ActionHelper(EntityFactory entityFactory, RandomGenerator random) {
+        if (random == null) {
+            throw new IllegalArgumentException("random generator cannot be null");
+        }
         this.entityFactory = entityFactory;
+        this.random = random;
     }
 
-    EntityFactory getEntityFactory() {
-        return entityFactory;
+    /**
+     * Creates an entity of the type on the cell, or plants grass if the map keeps grass in a layer.
+     *
+     * @return whether the entity or the grass took the cell
+     */
+    boolean place(WorldMap worldMap, Location location, EntityType type) {
+        if (type == EntityType.GRASS && worldMap.hasGrassLayer()) {
+            return worldMap.plantGrass(location);
+        }
+        return worldMap.tryAddEntity(location, entityFactory.createEntity(type));
     }
 
-    List<Location> fillEmptyLocationsList(WorldMap worldMap) {
-        List<Location> freeLocations = new ArrayList<>();
-        Location location;
-        for (int y = 0; y < worldMap.getHeight(); y++) {
-            for (int x = 0; x < worldMap.getWidth(); x++) {
-                location = new Location(x, y);
-                if (worldMap.getEntity(location).isEmpty()) {
-                    freeLocations.add(location);
-                }
-            }
-        }
-        return freeLocations;
+    /**
+     * Cells with no entity and no layer grass; fewer than {@code count} if the layer covers the rest.
+     */
+    List<Location> sampleEmptyLocations(WorldMap worldMap, int count) {
+        return worldMap.sampleEmptyLocations(count, random);
     }
 }
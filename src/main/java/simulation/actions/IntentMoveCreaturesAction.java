@@ -0,0 +1,167 @@
+package simulation.actions;
+
+import simulation.entity.Creature;
+import simulation.entity.CreatureStorage;
+import simulation.entity.Intent;
+import simulation.map.Location;
+import simulation.map.WorldMap;
+import simulation.path.PathCacheStats;
+import simulation.path.PathFinder;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Turn engine that moves creatures in rounds of one step each, up to the highest speed. Every round has
+ * two phases:
+ * <ol>
+ *     <li>plan - all creatures still moving choose an {@link Intent} in parallel against the unchanged map;</li>
+ *     <li>resolve - intents are applied one by one in the cell order of the creatures. The first intent on
+ *     a target cell wins, later ones on the same cell end their creature's turn; an intent whose creature
+ *     was killed earlier in the round is dropped.</li>
+ * </ol>
+ * Roaming draws from a generator split off the seeded one per creature and round in cell order, so for
+ * a given seed and starting map a run is reproducible regardless of parallelism.
+ */
+public class IntentMoveCreaturesAction implements MoveAction {
+    private final PathFinder pathFinder;
+    private final PathCacheStats pathCacheStats = new PathCacheStats();
+    private final SplittableRandom random;
+    private final ForkJoinPool pool;
+    private final BitSet claimedCells = new BitSet();
+    private final CreatureStorage creatureStorage;
+
+    public IntentMoveCreaturesAction(PathFinder pathFinder, long seed, int parallelism) {
+        this(pathFinder, seed, parallelism, null);
+    }
+
+    /**
+     * @param creatureStorage storage every creature on the moved map was created with, or {@code null} if
+     *                        they keep their attributes in their fields
+     */
+    public IntentMoveCreaturesAction(PathFinder pathFinder,
+                                     long seed,
+                                     int parallelism,
+                                     CreatureStorage creatureStorage) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.pathFinder = pathFinder;
+        this.random = new SplittableRandom(seed);
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        this.creatureStorage = creatureStorage;
+    }
+
+    @Override
+    public void execute(WorldMap worldMap) {
+        pathFinder.onTurnStart(worldMap);
+        Map<Creature, Location> creatureLocationMap = worldMap.getCreatures();
+        if (pathFinder.supportsBatch()) {
+            MoveCreaturesAction.seedPaths(worldMap, pathFinder, creatureLocationMap);
+        }
+
+        List<Mover> movers = new ArrayList<>(creatureLocationMap.size());
+        for (Map.Entry<Creature, Location> creatureLocationEntry : creatureLocationMap.entrySet()) {
+            Creature creature = creatureLocationEntry.getKey();
+            movers.add(new Mover(creature, creatureLocationEntry.getValue(), creature.getSpeed()));
+        }
+        int maxSpeed = MoveCreaturesAction.maxSpeed(creatureLocationMap.keySet(), creatureStorage);
+
+        for (int round = 0; round < maxSpeed && !movers.isEmpty(); round++) {
+            movers.removeIf(mover -> mover.stepsLeft == 0 || !isStillThere(worldMap, mover));
+            movers.sort((first, second) -> Integer.compare(first.cell(worldMap), second.cell(worldMap)));
+            for (Mover mover : movers) {
+                mover.random = random.split();
+            }
+            plan(worldMap, movers);
+            resolve(worldMap, movers);
+        }
+    }
+
+    @Override
+    public PathCacheStats getPathCacheStats() {
+        return pathCacheStats;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private void plan(WorldMap worldMap, List<Mover> movers) {
+        if (pool == null) {
+            movers.forEach(mover -> plan(worldMap, mover));
+        } else {
+            pool.submit(() -> IntStream.range(0, movers.size()).parallel()
+                    .forEach(i -> plan(worldMap, movers.get(i)))).join();
+        }
+    }
+
+    private void plan(WorldMap worldMap, Mover mover) {
+        mover.intent = mover.creature.planStep(worldMap, mover.location, pathFinder, pathCacheStats, mover.random);
+    }
+
+    /**
+     * Claims are kept in one bit set for the whole action; only the bits set by the round are cleared after it.
+     */
+    private void resolve(WorldMap worldMap, List<Mover> movers) {
+        for (Mover mover : movers) {
+            Intent intent = mover.intent;
+            if (intent.kind() == Intent.Kind.STAY || !isStillThere(worldMap, mover)) {
+                mover.stepsLeft = 0;
+                continue;
+            }
+            int target = worldMap.toIndex(intent.to().x(), intent.to().y());
+            if (claimedCells.get(target)) {
+                mover.stepsLeft = 0;
+                continue;
+            }
+            claimedCells.set(target);
+
+            Creature.StepResult result = mover.creature.applyStep(worldMap, intent);
+            if (result == Creature.StepResult.MOVED) {
+                mover.location = intent.to();
+                mover.stepsLeft--;
+            } else if (result == Creature.StepResult.ATTACKED) {
+                mover.stepsLeft--;
+            } else {
+                mover.stepsLeft = 0;
+            }
+        }
+        for (Mover mover : movers) {
+            Intent intent = mover.intent;
+            if (intent.kind() != Intent.Kind.STAY) {
+                claimedCells.clear(worldMap.toIndex(intent.to().x(), intent.to().y()));
+            }
+        }
+    }
+
+    private static boolean isStillThere(WorldMap worldMap, Mover mover) {
+        return worldMap.entityAt(mover.location.x(), mover.location.y()) == mover.creature;
+    }
+
+    private static final class Mover {
+        private final Creature creature;
+        private Location location;
+        private int stepsLeft;
+        private SplittableRandom random;
+        private Intent intent;
+
+        private Mover(Creature creature, Location location, int stepsLeft) {
+            this.creature = creature;
+            this.location = location;
+            this.stepsLeft = stepsLeft;
+        }
+
+        private int cell(WorldMap worldMap) {
+            return worldMap.toIndex(location.x(), location.y());
+        }
+    }
+}
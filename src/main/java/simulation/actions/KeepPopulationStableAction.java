@@ -1,16 +1,11 @@
 package simulation.actions;
 
-import simulation.entity.Entity;
-import simulation.entity.EntityFactory;
 import simulation.entity.EntityType;
 import simulation.map.Location;
 import simulation.map.WorldMap;
 import simulation.config.RepopulateValues;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 
 public class KeepPopulationStableAction implements Action {
     private final ActionHelper actionHelper;
@@ -23,45 +18,43 @@ public class KeepPopulationStableAction implements Action {
 
     @Override
     public void execute(WorldMap map) {
-        List<Location> emptyLocations = actionHelper.fillEmptyLocationsList(map);
-        Collections.shuffle(emptyLocations);
-
+        if (map.hasGrassLayer()) {
+            map.regrowGrass();
+        }
         int grassThreshold = repopulateValues.getGrassMin();
         int herbivoreThreshold = repopulateValues.getHerbivoreMin();
-        Map<Location, Entity> mapSnapshot = map.getMapSnapshot();
-        int currentGrass = countEntityPerType(mapSnapshot, EntityType.GRASS);
-        int currentHerbivores = countEntityPerType(mapSnapshot, EntityType.HERBIVORE);
+        int currentGrass = map.getPopulation(EntityType.GRASS);
+        int currentHerbivores = map.getPopulation(EntityType.HERBIVORE);
 
         int needGrass = Math.max(0, grassThreshold - currentGrass);
         int needHerbivores = Math.max(0, herbivoreThreshold - currentHerbivores);
-        if (needGrass + needHerbivores > emptyLocations.size()) {
+        if (needGrass + needHerbivores > map.getFreeCellCount()) {
             throw new IllegalArgumentException("need more fields than can populated!");
         }
+        List<Location> emptyLocations = actionHelper.sampleEmptyLocations(map, needGrass + needHerbivores);
         if (needGrass > 0) {
-            populate(needGrass, map, actionHelper.getEntityFactory(), emptyLocations, EntityType.GRASS);
+            populate(needGrass, map, emptyLocations, EntityType.GRASS);
         }
         if (needHerbivores > 0) {
-            populate(needHerbivores, map, actionHelper.getEntityFactory(), emptyLocations, EntityType.HERBIVORE);
+            populate(needHerbivores, map, emptyLocations, EntityType.HERBIVORE);
         }
     }
 
-    private int countEntityPerType(Map<Location, Entity> snapshot, EntityType type) {
-        return (int) snapshot.values().stream()
-                .filter(Objects::nonNull)
-                .filter((entity) -> type.matches(entity))
-                .count();
-    }
-
+    /**
+     * Places entities on the head of {@code emptyLocations} until {@code threshold} of them took a cell or the
+     * cells run out; the cells tried are removed from the list.
+     */
     private void populate(int threshold,
                           WorldMap worldMap,
-                          EntityFactory entityFactory,
                           List<Location> emptyLocations,
                           EntityType type) {
-        for (int i = 0; i < threshold; i++) {
-            worldMap.tryAddEntity(emptyLocations.get(i), entityFactory.createEntity(type));
-        }
-        if (threshold > 0) {
-            emptyLocations.subList(0, threshold).clear();
+        int placed = 0;
+        int tried = 0;
+        while (placed < threshold && tried < emptyLocations.size()) {
+            if (actionHelper.place(worldMap, emptyLocations.get(tried++), type)) {
+                placed++;
+            }
         }
+        emptyLocations.subList(0, tried).clear();
     }
 }
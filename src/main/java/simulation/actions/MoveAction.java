@@ -0,0 +1,14 @@
+package simulation.actions;
+
+import simulation.path.PathCacheStats;
+
+/**
+ * Turn action moving every creature; closing it stops the workers it may have started.
+ */
+public interface MoveAction extends Action, AutoCloseable {
+
+    PathCacheStats getPathCacheStats();
+
+    @Override
+    void close();
+}
@@ -1,52 +1,201 @@
 package simulation.actions;
 
 import simulation.entity.Creature;
-import simulation.entity.Entity;
+import simulation.entity.CreatureStorage;
+import simulation.entity.EntityType;
 import simulation.map.Location;
 import simulation.map.WorldMap;
+import simulation.path.PathCacheStats;
 import simulation.path.PathFinder;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Moves every creature once per turn. Given a parallelism, the map is split into square tiles wider than
+ * two creature reaches and processed in four checkerboard phases on a pool of that many workers: tiles of
+ * one phase are at least a whole tile apart, so no two creatures moved concurrently can change the same cell.
+ * Path searches still read the whole map while other tiles change it, so a tiled turn depends on how the
+ * workers are scheduled and is not reproducible from the seed; {@link IntentMoveCreaturesAction} is.
+ */
+public class MoveCreaturesAction implements MoveAction {
+    private static final int MIN_TILE_SIDE = 8;
 
-public class MoveCreaturesAction implements Action {
     private final PathFinder pathFinder;
+    private final PathCacheStats pathCacheStats = new PathCacheStats();
+    private final SplittableRandom random;
+    private final ForkJoinPool pool;
+    private final CreatureStorage creatureStorage;
 
-    public MoveCreaturesAction(PathFinder pathFinder) {
+    public MoveCreaturesAction(PathFinder pathFinder, long seed) {
         this.pathFinder = pathFinder;
+        this.random = new SplittableRandom(seed);
+        this.pool = null;
+        this.creatureStorage = null;
+    }
+
+    public MoveCreaturesAction(PathFinder pathFinder, long seed, int parallelism) {
+        this(pathFinder, seed, parallelism, null);
+    }
+
+    /**
+     * @param creatureStorage storage every creature on the moved map was created with, or {@code null} if
+     *                        they keep their attributes in their fields
+     */
+    public MoveCreaturesAction(PathFinder pathFinder, long seed, int parallelism, CreatureStorage creatureStorage) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.pathFinder = pathFinder;
+        this.random = new SplittableRandom(seed);
+        this.pool = new ForkJoinPool(parallelism);
+        this.creatureStorage = creatureStorage;
     }
 
     @Override
     public void execute(WorldMap worldMap) {
-        Map<Creature, Location> creatureLocationMap = fillCurrentMapSnapshot(worldMap);
-        for (Map.Entry<Creature, Location> creatureLocationEntry : creatureLocationMap.entrySet()) {
-            if (isLocationMissed(worldMap, creatureLocationEntry)) {
-                continue;
+        pathFinder.onTurnStart(worldMap);
+        Map<Creature, Location> creatureLocationMap = worldMap.getCreatures();
+        if (pathFinder.supportsBatch()) {
+            seedPaths(worldMap, pathFinder, creatureLocationMap);
+        }
+        if (pool == null) {
+            for (Map.Entry<Creature, Location> creatureLocationEntry : creatureLocationMap.entrySet()) {
+                moveCreature(worldMap, creatureLocationEntry, random);
             }
-            creatureLocationEntry.getKey().makeMove(worldMap, creatureLocationEntry.getValue(), pathFinder);
+        } else {
+            moveInTiles(worldMap, creatureLocationMap);
         }
     }
 
-    private Map<Creature, Location> fillCurrentMapSnapshot(WorldMap worldMap) {
-        Map<Creature, Location> creaturesLocation = new HashMap<>();
-        Location location;
-        for (int y = 0; y < worldMap.getHeight(); y++) {
-            for (int x = 0; x < worldMap.getWidth(); x++) {
-                location = new Location(x, y);
-                Optional<Entity> nullableEntity = worldMap.getEntity(location);
-                if (nullableEntity.isPresent() && nullableEntity.get() instanceof Creature) {
-                    creaturesLocation.put((Creature) nullableEntity.get(), location);
+    /**
+     * One pass over the speed array if the creatures share a storage; slots of creatures created but not
+     * placed may only raise the result.
+     */
+    static int maxSpeed(Collection<Creature> creatures, CreatureStorage creatureStorage) {
+        if (creatureStorage != null) {
+            return creatureStorage.maxSpeed();
+        }
+        int maxSpeed = 0;
+        for (Creature creature : creatures) {
+            maxSpeed = Math.max(maxSpeed, creature.getSpeed());
+        }
+        return maxSpeed;
+    }
+
+    private void moveCreature(WorldMap worldMap,
+                              Map.Entry<Creature, Location> creatureLocationEntry,
+                              SplittableRandom moveRandom) {
+        Creature creature = creatureLocationEntry.getKey();
+        Location currentLocation = worldMap.getCreatureLocation(creature);
+        if (currentLocation == null) {
+            return;
+        }
+        creature.makeMove(worldMap, currentLocation, pathFinder, pathCacheStats, moveRandom);
+    }
+
+    /**
+     * A creature steps onto, attacks or eats only cells within its speed of the cell it started from, so
+     * creatures of tiles of side {@code 2 * maxSpeed + 1} with a whole tile between them never change the
+     * same cell. Their searches (path finders, distance fields, the spatial index) read the whole map though,
+     * and see whatever the concurrently moving tiles have done so far. Within a tile creatures move one after
+     * another in cell order, roaming with a generator split off for that tile.
+     */
+    private void moveInTiles(WorldMap worldMap, Map<Creature, Location> creatureLocationMap) {
+        int maxSpeed = maxSpeed(creatureLocationMap.keySet(), creatureStorage);
+        int tileSide = Math.max(MIN_TILE_SIDE, 2 * maxSpeed + 1);
+        int tileColumns = (worldMap.getWidth() + tileSide - 1) / tileSide;
+        int tileRows = (worldMap.getHeight() + tileSide - 1) / tileSide;
+
+        List<List<Map.Entry<Creature, Location>>> tiles = new ArrayList<>(tileColumns * tileRows);
+        for (int tile = 0; tile < tileColumns * tileRows; tile++) {
+            tiles.add(new ArrayList<>());
+        }
+        for (Map.Entry<Creature, Location> creatureLocationEntry : creatureLocationMap.entrySet()) {
+            Location location = creatureLocationEntry.getValue();
+            tiles.get((location.y() / tileSide) * tileColumns + location.x() / tileSide).add(creatureLocationEntry);
+        }
+        Comparator<Map.Entry<Creature, Location>> cellOrder = Comparator.comparingInt(
+                creatureLocationEntry -> worldMap.toIndex(
+                        creatureLocationEntry.getValue().x(), creatureLocationEntry.getValue().y()));
+
+        for (int phaseRow = 0; phaseRow < 2; phaseRow++) {
+            for (int phaseColumn = 0; phaseColumn < 2; phaseColumn++) {
+                List<Callable<Void>> phase = new ArrayList<>();
+                for (int tileRow = phaseRow; tileRow < tileRows; tileRow += 2) {
+                    for (int tileColumn = phaseColumn; tileColumn < tileColumns; tileColumn += 2) {
+                        List<Map.Entry<Creature, Location>> tile = tiles.get(tileRow * tileColumns + tileColumn);
+                        if (tile.isEmpty()) {
+                            continue;
+                        }
+                        SplittableRandom tileRandom = random.split();
+                        phase.add(() -> {
+                            tile.sort(cellOrder);
+                            for (Map.Entry<Creature, Location> creatureLocationEntry : tile) {
+                                moveCreature(worldMap, creatureLocationEntry, tileRandom);
+                            }
+                            return null;
+                        });
+                    }
                 }
+                runPhase(phase);
             }
         }
-        return creaturesLocation;
     }
 
-    private boolean isLocationMissed(WorldMap worldMap, Map.Entry<Creature, Location> creatureLocationEntry) {
-        Creature currentCreature = creatureLocationEntry.getKey();
-        Location oldLocation = creatureLocationEntry.getValue();
-        Optional<Entity> entityBeforeMoving = worldMap.getEntity(oldLocation);
-        return entityBeforeMoving.map(entity -> !entity.equals(currentCreature)).orElse(true);
+    private void runPhase(List<Callable<Void>> phase) {
+        for (Future<Void> tileResult : pool.invokeAll(phase)) {
+            try {
+                tileResult.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("moving creatures of a map tile failed", e.getCause());
+            }
+        }
+    }
+
+    @Override
+    public PathCacheStats getPathCacheStats() {
+        return pathCacheStats;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * One batch query per goal type for every creature whose cached path is no longer usable, so search
+     * cost grows with the number of goal types rather than with the number of creatures.
+     */
+    static void seedPaths(WorldMap worldMap, PathFinder pathFinder, Map<Creature, Location> creatureLocationMap) {
+        Map<EntityType, Map<Location, Creature>> seekersByGoal = new EnumMap<>(EntityType.class);
+        for (Map.Entry<Creature, Location> creatureLocationEntry : creatureLocationMap.entrySet()) {
+            Creature creature = creatureLocationEntry.getKey();
+            Location location = creatureLocationEntry.getValue();
+            if (!creature.hasUsableCachedPath(worldMap, location)) {
+                seekersByGoal.computeIfAbsent(creature.getGoalType(), type -> new LinkedHashMap<>())
+                        .put(location, creature);
+            }
+        }
+        for (Map.Entry<EntityType, Map<Location, Creature>> seekers : seekersByGoal.entrySet()) {
+            Map<Location, List<Location>> paths =
+                    pathFinder.findPaths(worldMap, seekers.getValue().keySet(), seekers.getKey());
+            seekers.getValue().forEach((location, creature) -> creature.seedPath(paths.get(location)));
+        }
     }
 }
@@ -6,7 +6,6 @@ import simulation.map.WorldMap;
 import simulation.config.EntityStartValues;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 public class PopulateMapAction implements Action {
@@ -20,22 +19,21 @@ public class PopulateMapAction implements Action {
 
     @Override
     public void execute(WorldMap worldMap) {
-        List<Location> emptyLocations = actionHelper.fillEmptyLocationsList(worldMap);
-
-        Collections.shuffle(emptyLocations);
-
         List<EntityPlan> planList = new ArrayList<>();
+        int plannedTotal = 0;
         for (EntityType entityType : EntityType.values()) {
             planList.add(new EntityPlan(entityType, getTypeQuantity(entityType)));
+            plannedTotal += getTypeQuantity(entityType);
         }
 
+        List<Location> emptyLocations = actionHelper.sampleEmptyLocations(worldMap, plannedTotal);
+
         int entitiesPlanted = 0;
         for (EntityPlan entityPlan : planList) {
             EntityType type = entityPlan.entityType();
             int quantity = entityPlan.quantity();
             for (int i = 0; i < quantity; i++) {
-                worldMap.tryAddEntity(emptyLocations.get(entitiesPlanted++),
-                        actionHelper.getEntityFactory().createEntity(type));
+                actionHelper.place(worldMap, emptyLocations.get(entitiesPlanted++), type);
             }
         }
     }
@@ -0,0 +1,105 @@
+package simulation.benchmark;
+
+import simulation.actions.MoveCreaturesAction;
+import simulation.config.EntityCharacteristicsFactory;
+import simulation.config.MapSize;
+import simulation.entity.Creature;
+import simulation.entity.CreatureStorage;
+import simulation.entity.EntityFactory;
+import simulation.entity.EntityType;
+import simulation.map.Location;
+import simulation.map.WorldMap;
+import simulation.path.BoundedPathFinder;
+import simulation.path.SearchLimits;
+
+import java.util.SplittableRandom;
+
+/**
+ * Heap taken by the creatures, turn time of the sequential move and time of a max-speed pass over all
+ * creatures, with every creature keeping its attributes in its own fields and with all of them sharing one
+ * {@link CreatureStorage}, on a large map crowded with creatures. The heap figure includes the map's own
+ * bookkeeping per creature, which is the same in both modes.
+ * Run: {@code java -cp target/classes simulation.benchmark.CreatureStorageBenchmark [side] [creatures]}
+ */
+public class CreatureStorageBenchmark {
+    private static final int DEFAULT_SIDE = 1000;
+    private static final int DEFAULT_CREATURES = 300_000;
+    private static final int PREDATOR_EVERY = 5;
+    private static final int WARMUP_TURNS = 2;
+    private static final int MEASURED_TURNS = 5;
+    private static final int SPEED_PASSES = 200;
+    private static final SearchLimits LIMITS = new SearchLimits(12, 400);
+    private static final long SEED = 42L;
+
+    public static void main(String[] args) {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIDE;
+        int creatures = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CREATURES;
+
+        System.out.printf("map %dx%d, %d creatures%n", side, side, creatures);
+        System.out.printf("%-12s %18s %14s %14s%n", "storage", "bytes per creature", "ms per turn", "ms per pass");
+        run("fields", side, creatures, false);
+        run("shared", side, creatures, true);
+    }
+
+    private static void run(String title, int side, int creatures, boolean shared) {
+        WorldMap map = new WorldMap(side, side);
+        long before = usedHeap();
+        CreatureStorage storage = shared ? new CreatureStorage(creatures) : null;
+        if (storage != null) {
+            map.addListener(storage);
+        }
+        populate(map, new EntityFactory(
+                new EntityCharacteristicsFactory().geEntityStartCharacteristics(MapSize.LARGE), storage), creatures);
+        double bytesPerCreature = (double) (usedHeap() - before) / creatures;
+
+        MoveCreaturesAction action = new MoveCreaturesAction(new BoundedPathFinder(LIMITS), SEED);
+        for (int turn = 0; turn < WARMUP_TURNS; turn++) {
+            action.execute(map);
+        }
+        long start = System.nanoTime();
+        for (int turn = 0; turn < MEASURED_TURNS; turn++) {
+            action.execute(map);
+        }
+        double turnMillis = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_TURNS;
+
+        Creature[] all = map.getCreatures().keySet().toArray(new Creature[0]);
+        int maxSpeed = 0;
+        for (int pass = 0; pass < SPEED_PASSES; pass++) {
+            maxSpeed = Math.max(maxSpeed, maxSpeed(all, storage));
+        }
+        start = System.nanoTime();
+        for (int pass = 0; pass < SPEED_PASSES; pass++) {
+            maxSpeed = Math.max(maxSpeed, maxSpeed(all, storage));
+        }
+        double passMillis = (System.nanoTime() - start) / 1_000_000.0 / SPEED_PASSES;
+        System.out.printf("%-12s %18.1f %14.1f %14.3f (max speed %d)%n",
+                title, bytesPerCreature, turnMillis, passMillis, maxSpeed);
+    }
+
+    private static int maxSpeed(Creature[] creatures, CreatureStorage storage) {
+        if (storage != null) {
+            return storage.maxSpeed();
+        }
+        int maxSpeed = 0;
+        for (Creature creature : creatures) {
+            maxSpeed = Math.max(maxSpeed, creature.getSpeed());
+        }
+        return maxSpeed;
+    }
+
+    private static void populate(WorldMap map, EntityFactory entityFactory, int creatures) {
+        int placed = 0;
+        for (Location location : map.sampleFreeLocations(creatures, new SplittableRandom(SEED))) {
+            EntityType type = placed++ % PREDATOR_EVERY == 0 ? EntityType.PREDATOR : EntityType.HERBIVORE;
+            map.tryAddEntity(location, entityFactory.createEntity(type));
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
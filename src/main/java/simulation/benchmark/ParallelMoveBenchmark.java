@@ -0,0 +1,89 @@
+package simulation.benchmark;
+
+import simulation.actions.ActionHelper;
+import simulation.actions.MoveCreaturesAction;
+import simulation.actions.PopulateMapAction;
+import simulation.config.EntityCharacteristicsFactory;
+import simulation.config.EntityStartValues;
+import simulation.config.EntityStartValuesFactory;
+import simulation.config.MapSize;
+import simulation.config.WorldMapFactory;
+import simulation.entity.EntityFactory;
+import simulation.map.WorldMap;
+import simulation.path.BoundedPathFinder;
+import simulation.path.SearchLimits;
+
+import java.util.SplittableRandom;
+
+/**
+ * Turn time of the tiled {@link MoveCreaturesAction} for parallelism 1, 2, 4 ... up to the number of available
+ * cores, next to the untiled sequential action, on a large map populated with the LARGE preset density.
+ * Run: {@code java -cp target/classes simulation.benchmark.ParallelMoveBenchmark [side] [max parallelism]}
+ */
+public class ParallelMoveBenchmark {
+    private static final int DEFAULT_SIDE = 1000;
+    private static final int WARMUP_TURNS = 3;
+    private static final int MEASURED_TURNS = 10;
+    private static final SearchLimits LIMITS = new SearchLimits(12, 400);
+    private static final long SEED = 42L;
+
+    public static void main(String[] args) {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIDE;
+        int maxParallelism = args.length > 1
+                ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("map %dx%d, %d available cores%n", side, side, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-12s %14s %10s%n", "parallelism", "ms per turn", "speedup");
+        System.out.printf("%-12s %14.1f %10s%n", "untiled", measure(side, 0), "-");
+        double singleWorker = 0;
+        for (int parallelism = 1; parallelism <= maxParallelism; parallelism = nextParallelism(parallelism, maxParallelism)) {
+            double turnMillis = measure(side, parallelism);
+            if (parallelism == 1) {
+                singleWorker = turnMillis;
+            }
+            System.out.printf("%-12d %14.1f %10.2f%n", parallelism, turnMillis, singleWorker / turnMillis);
+        }
+    }
+
+    private static int nextParallelism(int parallelism, int maxParallelism) {
+        return parallelism < maxParallelism && parallelism * 2 > maxParallelism ? maxParallelism : parallelism * 2;
+    }
+
+    /**
+     * @param parallelism worker count of the tiled action, 0 for the untiled one
+     */
+    private static double measure(int side, int parallelism) {
+        WorldMap map = new WorldMap(side, side);
+        populate(map);
+        BoundedPathFinder pathFinder = new BoundedPathFinder(LIMITS);
+        MoveCreaturesAction action = parallelism == 0
+                ? new MoveCreaturesAction(pathFinder, SEED)
+                : new MoveCreaturesAction(pathFinder, SEED, parallelism);
+        try (action) {
+            for (int turn = 0; turn < WARMUP_TURNS; turn++) {
+                action.execute(map);
+            }
+            long start = System.nanoTime();
+            for (int turn = 0; turn < MEASURED_TURNS; turn++) {
+                action.execute(map);
+            }
+            return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_TURNS;
+        }
+    }
+
+    private static void populate(WorldMap map) {
+        EntityStartValues large = new EntityStartValuesFactory().geStartEntitiesValues(MapSize.LARGE);
+        WorldMap largeMap = new WorldMapFactory().getWorldMap(MapSize.LARGE);
+        int factor = Math.max(1, map.getWidth() * map.getHeight() / (largeMap.getWidth() * largeMap.getHeight()));
+        EntityStartValues scaled = new EntityStartValues(
+                large.startTreeQuantity() * factor,
+                large.startStonesQuantity() * factor,
+                large.startGrassQuantity() * factor,
+                large.startHerbivoresQuantity() * factor,
+                large.startPredatorsQuantity() * factor);
+        EntityFactory entityFactory = new EntityFactory(
+                new EntityCharacteristicsFactory().geEntityStartCharacteristics(MapSize.LARGE));
+        new PopulateMapAction(new ActionHelper(entityFactory, new SplittableRandom(SEED)), scaled).execute(map);
+    }
+}
@@ -0,0 +1,76 @@
+package simulation.benchmark;
+
+import simulation.entity.EntityType;
+import simulation.entity.Grass;
+import simulation.entity.Rock;
+import simulation.entity.Tree;
+import simulation.map.Location;
+import simulation.map.WorldMap;
+import simulation.path.HierarchicalPathFinder;
+import simulation.path.IndexedBFSPathFinder;
+import simulation.path.PathFinder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Long-range searches on an obstacle-dense synthetic map with sparse goals: flat BFS against HPA*.
+ * Run: {@code java -cp target/classes simulation.benchmark.PathFinderBenchmark [side] [obstacle %]}
+ */
+public class PathFinderBenchmark {
+    private static final int DEFAULT_SIDE = 1000;
+    private static final int DEFAULT_OBSTACLE_PERCENT = 30;
+    private static final int GOALS = 40;
+    private static final int QUERIES = 200;
+    private static final long SEED = 7L;
+
+    public static void main(String[] args) {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIDE;
+        int obstaclePercent = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_OBSTACLE_PERCENT;
+        WorldMap map = obstacleMap(side, obstaclePercent);
+        List<Location> origins = freeOrigins(map, QUERIES);
+
+        System.out.printf("map %dx%d, %d%% rocks/trees, %d grass, %d queries%n",
+                side, side, obstaclePercent, GOALS, QUERIES);
+        System.out.printf("%-14s %14s %14s %12s%n", "path finder", "first query ms", "avg query ms", "found");
+        run("flat BFS", new IndexedBFSPathFinder(), map, origins);
+        run("HPA*", new HierarchicalPathFinder(), map, origins);
+    }
+
+    private static void run(String title, PathFinder pathFinder, WorldMap map, List<Location> origins) {
+        long start = System.nanoTime();
+        pathFinder.findPath(map, origins.get(0), EntityType.GRASS);
+        double first = (System.nanoTime() - start) / 1_000_000.0;
+
+        int found = 0;
+        start = System.nanoTime();
+        for (Location origin : origins) {
+            if (!pathFinder.findPath(map, origin, EntityType.GRASS).isEmpty()) {
+                found++;
+            }
+        }
+        double average = (System.nanoTime() - start) / 1_000_000.0 / origins.size();
+        System.out.printf("%-14s %14.2f %14.3f %12d%n", title, first, average, found);
+    }
+
+    private static WorldMap obstacleMap(int side, int obstaclePercent) {
+        WorldMap map = new WorldMap(side, side);
+        Random random = new Random(SEED);
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                if (random.nextInt(100) < obstaclePercent) {
+                    map.tryAddEntity(new Location(x, y), random.nextBoolean() ? new Rock() : new Tree());
+                }
+            }
+        }
+        for (Location location : map.sampleFreeLocations(GOALS, random)) {
+            map.tryAddEntity(location, new Grass(1));
+        }
+        return map;
+    }
+
+    private static List<Location> freeOrigins(WorldMap map, int count) {
+        return new ArrayList<>(map.sampleFreeLocations(count, new Random(SEED + 1)));
+    }
+}
@@ -0,0 +1,150 @@
+package simulation.benchmark;
+
+import simulation.actions.ActionHelper;
+import simulation.actions.PopulateMapAction;
+import simulation.config.EntityCharacteristicsFactory;
+import simulation.config.EntityStartValues;
+import simulation.config.EntityStartValuesFactory;
+import simulation.config.MapSize;
+import simulation.config.WorldMapFactory;
+import simulation.entity.Creature;
+import simulation.entity.Entity;
+import simulation.entity.EntityFactory;
+import simulation.entity.EntityType;
+import simulation.map.Location;
+import simulation.map.MapBackend;
+import simulation.map.WorldMap;
+import simulation.path.BFSPathFinder;
+import simulation.path.PathFinder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Compares {@link MapBackend#HASH} and {@link MapBackend#ARRAY} on the LARGE preset and on a synthetic
+ * 1000x1000 map populated with the same density.
+ * Run: {@code java -cp target/classes simulation.benchmark.WorldMapBenchmark}
+ */
+public class WorldMapBenchmark {
+    private static final int SYNTHETIC_SIDE = 1000;
+    private static final int LOOKUPS = 2_000_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final long SEED = 42L;
+
+    private static volatile int sink;
+
+    public static void main(String[] args) {
+        WorldMap large = new WorldMapFactory().getWorldMap(MapSize.LARGE);
+        populate(large, new EntityStartValuesFactory().geStartEntitiesValues(MapSize.LARGE));
+        run("LARGE " + large.getWidth() + "x" + large.getHeight(), large, 2_000);
+
+        WorldMap synthetic = new WorldMap(SYNTHETIC_SIDE, SYNTHETIC_SIDE);
+        populate(synthetic, scaledStartValues(SYNTHETIC_SIDE * SYNTHETIC_SIDE));
+        run("SYNTHETIC " + SYNTHETIC_SIDE + "x" + SYNTHETIC_SIDE, synthetic, 20);
+    }
+
+    private static void run(String title, WorldMap populated, int searches) {
+        System.out.printf("%n== %s ==%n", title);
+        System.out.printf("%-8s %16s %16s %16s%n", "backend", "lookup ns/op", "scan ms/pass", "bfs us/search");
+        for (MapBackend backend : MapBackend.values()) {
+            WorldMap map = copy(populated, backend);
+            List<Location> origins = creatureLocations(map);
+            double lookup = measure(() -> randomLookups(map)) / LOOKUPS;
+            double scan = measure(() -> fullScan(map)) / 1_000_000.0;
+            double bfs = measure(() -> searches(map, origins, searches)) / searches / 1_000.0;
+            System.out.printf("%-8s %16.1f %16.3f %16.1f%n", backend, lookup, scan, bfs);
+        }
+    }
+
+    private static double measure(Runnable body) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            body.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            body.run();
+        }
+        return (System.nanoTime() - start) / (double) MEASURED_ROUNDS;
+    }
+
+    private static void randomLookups(WorldMap map) {
+        Random random = new Random(SEED);
+        int occupied = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            Location location = new Location(random.nextInt(map.getWidth()), random.nextInt(map.getHeight()));
+            if (map.getEntity(location).isPresent()) {
+                occupied++;
+            }
+        }
+        consume(occupied);
+    }
+
+    private static void fullScan(WorldMap map) {
+        int free = 0;
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) {
+                if (map.isCellFree(x, y)) {
+                    free++;
+                }
+            }
+        }
+        consume(free);
+    }
+
+    private static void searches(WorldMap map, List<Location> origins, int searches) {
+        PathFinder pathFinder = new BFSPathFinder();
+        int found = 0;
+        for (int i = 0; i < searches; i++) {
+            Location origin = origins.get(i % origins.size());
+            found += pathFinder.findPath(map, origin, EntityType.GRASS.mask()).size();
+        }
+        consume(found);
+    }
+
+    private static void populate(WorldMap map, EntityStartValues startValues) {
+        EntityFactory entityFactory = new EntityFactory(
+                new EntityCharacteristicsFactory().geEntityStartCharacteristics(MapSize.LARGE));
+        new PopulateMapAction(new ActionHelper(entityFactory, new SplittableRandom(SEED)), startValues).execute(map);
+    }
+
+    private static EntityStartValues scaledStartValues(int area) {
+        EntityStartValues large = new EntityStartValuesFactory().geStartEntitiesValues(MapSize.LARGE);
+        WorldMap largeMap = new WorldMapFactory().getWorldMap(MapSize.LARGE);
+        int factor = area / (largeMap.getWidth() * largeMap.getHeight());
+        return new EntityStartValues(
+                large.startTreeQuantity() * factor,
+                large.startStonesQuantity() * factor,
+                large.startGrassQuantity() * factor,
+                large.startHerbivoresQuantity() * factor,
+                large.startPredatorsQuantity() * factor);
+    }
+
+    private static WorldMap copy(WorldMap source, MapBackend backend) {
+        WorldMap copy = new WorldMap(source.getWidth(), source.getHeight(), backend);
+        for (Map.Entry<Location, Entity> entry : source.getMapSnapshot().entrySet()) {
+            copy.tryAddEntity(entry.getKey(), entry.getValue());
+        }
+        return copy;
+    }
+
+    private static List<Location> creatureLocations(WorldMap map) {
+        List<Location> origins = new ArrayList<>();
+        for (Map.Entry<Location, Entity> entry : map.getMapSnapshot().entrySet()) {
+            if (entry.getValue() instanceof Creature) {
+                origins.add(entry.getKey());
+            }
+        }
+        origins.sort((first, second) -> first.y() != second.y()
+                ? Integer.compare(first.y(), second.y())
+                : Integer.compare(first.x(), second.x()));
+        return origins;
+    }
+
+    private static void consume(int value) {
+        sink += value;
+    }
+}
@@ -0,0 +1,45 @@
+package simulation.config;
+
+/**
+ * How a simulation runs its turns, as opposed to what it simulates.
+ *
+ * @param moveEngine            rules by which creatures move
+ * @param parallelism           number of workers moving creatures; 1 keeps the moves on the simulation thread
+ * @param sharedCreatureStorage whether the attributes of all creatures live in one
+ *                              {@link simulation.entity.CreatureStorage} instead of each creature's fields
+ * @param entityPoolCapacity    removed grass and herbivores kept per type for reuse; 0 (default) turns pooling off
+ */
+public record EngineSettings(MoveEngine moveEngine, int parallelism, boolean sharedCreatureStorage,
+                             int entityPoolCapacity) {
+    public static final int SEQUENTIAL = 1;
+    public static final int NO_ENTITY_POOL = 0;
+
+    public EngineSettings(MoveEngine moveEngine, int parallelism, boolean sharedCreatureStorage,
+                          int entityPoolCapacity) {
+        this.moveEngine = moveEngine;
+        this.parallelism = parallelism;
+        this.sharedCreatureStorage = sharedCreatureStorage;
+        this.entityPoolCapacity = entityPoolCapacity;
+        SimulationConfigValidator.validate(this);
+    }
+
+    public static EngineSettings defaults() {
+        return new EngineSettings(MoveEngine.DIRECT, SEQUENTIAL, false, NO_ENTITY_POOL);
+    }
+
+    public EngineSettings withMoveEngine(MoveEngine moveEngine) {
+        return new EngineSettings(moveEngine, parallelism, sharedCreatureStorage, entityPoolCapacity);
+    }
+
+    public EngineSettings withParallelism(int parallelism) {
+        return new EngineSettings(moveEngine, parallelism, sharedCreatureStorage, entityPoolCapacity);
+    }
+
+    public EngineSettings withSharedCreatureStorage(boolean sharedCreatureStorage) {
+        return new EngineSettings(moveEngine, parallelism, sharedCreatureStorage, entityPoolCapacity);
+    }
+
+    public EngineSettings withEntityPoolCapacity(int entityPoolCapacity) {
+        return new EngineSettings(moveEngine, parallelism, sharedCreatureStorage, entityPoolCapacity);
+    }
+}
@@ -0,0 +1,16 @@
+package simulation.config;
+
+/**
+ * Rules by which creatures move within a turn.
+ */
+public enum MoveEngine {
+    /**
+     * Every creature makes all its steps before the next one moves; in parallel, over map tiles.
+     */
+    DIRECT,
+    /**
+     * Creatures move a step per round, planned against the map of the round start and resolved in cell order;
+     * reproducible from the seed at any parallelism.
+     */
+    INTENT
+}
@@ -8,4 +8,8 @@ public class RepopulateValuesFactory {
             case LARGE -> (new RepopulateValues(30, 15));
         };
     }
+
+    public RepopulateValues getRepopulateValues(int grassMin, int herbivoreMin) {
+        return new RepopulateValues(grassMin, herbivoreMin);
+    }
 }
\ No newline at end of file
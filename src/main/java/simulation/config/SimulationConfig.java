@@ -2,17 +2,40 @@ package simulation.config;
 
 import simulation.map.WorldMap;
 
+/**
+ * @param seed           root of every random choice of a run: entity placement, repopulation and roaming
+ *                       all draw from streams split off it, so equal seeds give equal runs
+ * @param engineSettings how turns are run; {@link EngineSettings#defaults()} unless given
+ */
 public record SimulationConfig(WorldMap worldMap, EntityCharacteristics entityCharacteristics,
-                               EntityStartValues entityStartValues, RepopulateValues repopulateValues) {
+                               EntityStartValues entityStartValues, RepopulateValues repopulateValues,
+                               long seed, EngineSettings engineSettings) {
 
     public SimulationConfig(WorldMap worldMap,
                             EntityCharacteristics entityCharacteristics,
                             EntityStartValues entityStartValues,
-                            RepopulateValues repopulateValues) {
+                            RepopulateValues repopulateValues,
+                            long seed) {
+        this(worldMap, entityCharacteristics, entityStartValues, repopulateValues, seed, EngineSettings.defaults());
+    }
+
+    public SimulationConfig(WorldMap worldMap,
+                            EntityCharacteristics entityCharacteristics,
+                            EntityStartValues entityStartValues,
+                            RepopulateValues repopulateValues,
+                            long seed,
+                            EngineSettings engineSettings) {
         this.worldMap = worldMap;
         this.entityCharacteristics = entityCharacteristics;
         this.entityStartValues = entityStartValues;
         this.repopulateValues = repopulateValues;
+        this.seed = seed;
+        this.engineSettings = engineSettings;
         SimulationConfigValidator.validate(this);
     }
+
+    public SimulationConfig withEngineSettings(EngineSettings engineSettings) {
+        return new SimulationConfig(worldMap, entityCharacteristics, entityStartValues, repopulateValues, seed,
+                engineSettings);
+    }
 }
@@ -1,21 +1,48 @@
 package simulation.config;
 
+import java.util.SplittableRandom;
+
 public class SimulationConfigFactory {
+    /**
+     * Preset config with a fresh seed.
+     */
     public SimulationConfig getSimulationConfig(MapSize size) {
+        return getSimulationConfig(size, new SplittableRandom().nextLong());
+    }
+
+    public SimulationConfig getSimulationConfig(MapSize size, long seed) {
         if (size == null) {
             throw new IllegalArgumentException("map size cannot be null");
         }
 
-        WorldMapFactory worldMapFactory = new WorldMapFactory();
-        EntityStartValuesFactory entityStartValuesFactory = new EntityStartValuesFactory();
         EntityCharacteristicsFactory entityCharacteristicsFactory = new EntityCharacteristicsFactory();
         RepopulateValuesFactory repopulateValuesFactory = new RepopulateValuesFactory();
+        return getSimulationConfig(size,
+                entityCharacteristicsFactory.geEntityStartCharacteristics(size),
+                repopulateValuesFactory.getRepopulateValues(size),
+                seed);
+    }
+
+    /**
+     * Preset map and start values with the given characteristics and repopulation thresholds, e.g. for sweeps.
+     */
+    public SimulationConfig getSimulationConfig(MapSize size,
+                                                EntityCharacteristics entityCharacteristics,
+                                                RepopulateValues repopulateValues,
+                                                long seed) {
+        if (size == null) {
+            throw new IllegalArgumentException("map size cannot be null");
+        }
+
+        WorldMapFactory worldMapFactory = new WorldMapFactory();
+        EntityStartValuesFactory entityStartValuesFactory = new EntityStartValuesFactory();
 
         SimulationConfig config = new SimulationConfig(
                 worldMapFactory.getWorldMap(size),
-                entityCharacteristicsFactory.geEntityStartCharacteristics(size),
+                entityCharacteristics,
                 entityStartValuesFactory.geStartEntitiesValues(size),
-                repopulateValuesFactory.getRepopulateValues(size));
+                repopulateValues,
+                seed);
 
         SimulationConfigValidator.validate(config);
         return config;
@@ -60,6 +60,21 @@ public final class SimulationConfigValidator {
         }
     }
 
+    public static void validate(EngineSettings settings) {
+        if (settings == null) {
+            throw new IllegalArgumentException("engineSettings cannot be null");
+        }
+        if (settings.moveEngine() == null) {
+            throw new IllegalArgumentException("moveEngine cannot be null");
+        }
+        if (settings.parallelism() < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        if (settings.entityPoolCapacity() < 0) {
+            throw new IllegalArgumentException("entity pool capacity cannot be negative");
+        }
+    }
+
     public static void validate(SimulationConfig config) {
         if (config == null) {
             throw new IllegalArgumentException("simulationConfig cannot be null");
@@ -69,6 +84,7 @@ public final class SimulationConfigValidator {
         validate(config.entityCharacteristics());
         validate(config.entityStartValues());
         validate(config.repopulateValues());
+        validate(config.engineSettings());
 
         validateGrassThreshold(config);
         validateHerbivoreThreshold(config);
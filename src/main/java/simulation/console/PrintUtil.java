@@ -1,5 +1,14 @@
 package simulation.console;
 
+import simulation.PhaseTimings;
+import simulation.config.MapSize;
+import simulation.controller.TickScheduler;
+import simulation.entity.EntityPool;
+import simulation.ensemble.VariantSummary;
+import simulation.path.PathCacheStats;
+
+import java.util.Map;
+
 final public class PrintUtil {
 
     private PrintUtil() {
@@ -39,6 +48,74 @@ final public class PrintUtil {
                 """, moves);
     }
 
+    public static void printPathCacheStats(PathCacheStats stats) {
+        System.out.printf("Кэш маршрутов: попаданий %d, промахов %d (%.1f%% попаданий)%n",
+                stats.getHits(),
+                stats.getMisses(),
+                stats.getHitRate() * 100);
+    }
+
+    public static void printEntityPoolStats(EntityPool entityPool) {
+        if (entityPool == null) {
+            System.out.println("Пул сущностей отключён");
+            return;
+        }
+        System.out.printf("Пул сущностей: повторно использовано %d, создано заново %d (%.1f%% из пула)%n",
+                entityPool.getHits(),
+                entityPool.getMisses(),
+                entityPool.getHitRate() * 100);
+    }
+
+    public static void printTickStats(TickScheduler tickScheduler) {
+        System.out.printf("Темп: %d ходов, %.2f ходов/с, не уложились в такт %d раз%n",
+                tickScheduler.getCompletedTurns(),
+                tickScheduler.getActualTurnsPerSecond(),
+                tickScheduler.getOverrunCount());
+    }
+
+    public static void printSeed(long seed) {
+        System.out.printf("Зерно генератора: %d%n", seed);
+    }
+
+    public static void printHeadlessReport(MapSize mapSize,
+                                           String pathFinderName,
+                                           int turns,
+                                           long elapsedNanos,
+                                           PhaseTimings phaseTimings) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("Карта %s, поиск пути %s: %d ходов за %.2f с, %.1f ходов/с%n",
+                mapSize, pathFinderName, turns, seconds, seconds > 0 ? turns / seconds : 0);
+        for (Map.Entry<String, Long> phase : phaseTimings.getNanosByPhase().entrySet()) {
+            System.out.printf("  %-28s %10.1f мс всего, %8.3f мс за ход%n",
+                    phase.getKey(),
+                    phase.getValue() / 1_000_000.0,
+                    turns > 0 ? phase.getValue() / 1_000_000.0 / turns : 0);
+        }
+    }
+
+    public static void printEnsembleHeader(MapSize mapSize, int runs, int turns, long seed, double seconds) {
+        System.out.printf("Ансамбль на карте %s: по %d прогонов на конфигурацию, %d ходов, seed %d, %.1f с%n",
+                mapSize, runs, turns, seed, seconds);
+    }
+
+    public static void printEnsembleSummary(VariantSummary summary) {
+        String extinctionTurn = summary.extinctRuns() == 0
+                ? "-"
+                : String.format("%.1f", summary.meanExtinctionTurn());
+        System.out.printf("%-28s вымирание %d/%d (ход %5s) трава %6.1f травоядные %6.1f хищники %6.1f"
+                        + " | ход p50 %.3f p95 %.3f p99 %.3f мс%n",
+                summary.variant().name(),
+                summary.extinctRuns(),
+                summary.runs(),
+                extinctionTurn,
+                summary.meanGrass(),
+                summary.meanHerbivores(),
+                summary.meanPredators(),
+                summary.turnMillisP50(),
+                summary.turnMillisP95(),
+                summary.turnMillisP99());
+    }
+
     public static void printInvalidInput() {
         System.out.println("Некорректный ввод ->");
     }
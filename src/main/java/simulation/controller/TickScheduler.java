@@ -0,0 +1,102 @@
+package simulation.controller;
+
+/**
+ * Paces the turns of a simulation:
+ * <ul>
+ *     <li>fixed rate - waits only what is left of the tick after the turn was computed; a turn slower than
+ *     the tick is counted as an overrun and the next one starts at once;</li>
+ *     <li>as fast as possible - no waiting at all;</li>
+ *     <li>turns then pause - as fast as possible, but asks for a pause after every {@code N} turns.</li>
+ * </ul>
+ * The actual rate counts only time spent computing and waiting between turns, not time spent paused.
+ */
+public class TickScheduler {
+    public static final double DEFAULT_TURNS_PER_SECOND = 0.5;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final long tickNanos;
+    private final int turnsBeforePause;
+
+    private long turnStartNanos;
+    private long activeNanos;
+    private long completedTurns;
+    private long overruns;
+    private int turnsSincePause;
+
+    private TickScheduler(long tickNanos, int turnsBeforePause) {
+        this.tickNanos = tickNanos;
+        this.turnsBeforePause = turnsBeforePause;
+    }
+
+    public static TickScheduler fixedRate(double turnsPerSecond) {
+        if (!(turnsPerSecond > 0) || Double.isInfinite(turnsPerSecond)) {
+            throw new IllegalArgumentException("turns per second must be positive and finite");
+        }
+        return new TickScheduler(Math.round(NANOS_PER_SECOND / turnsPerSecond), 0);
+    }
+
+    public static TickScheduler asFastAsPossible() {
+        return new TickScheduler(0, 0);
+    }
+
+    public static TickScheduler turnsThenPause(int turns) {
+        if (turns <= 0) {
+            throw new IllegalArgumentException("turns before pause must be positive");
+        }
+        return new TickScheduler(0, turns);
+    }
+
+    public synchronized void onTurnStart() {
+        turnStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Call after the turn is computed.
+     *
+     * @return {@code true} if the simulation should pause now
+     */
+    public synchronized boolean onTurnEnd() {
+        completedTurns++;
+        if (tickNanos > 0 && System.nanoTime() - turnStartNanos > tickNanos) {
+            overruns++;
+        }
+        if (turnsBeforePause > 0 && ++turnsSincePause == turnsBeforePause) {
+            turnsSincePause = 0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sleeps for the rest of the current tick; returns at once when the turn took the whole tick or longer.
+     */
+    public void awaitNextTick() throws InterruptedException {
+        long startNanos;
+        synchronized (this) {
+            startNanos = turnStartNanos;
+        }
+        try {
+            long remaining = startNanos + tickNanos - System.nanoTime();
+            if (tickNanos > 0 && remaining > 0) {
+                Thread.sleep(remaining / NANOS_PER_MILLI, (int) (remaining % NANOS_PER_MILLI));
+            }
+        } finally {
+            synchronized (this) {
+                activeNanos += System.nanoTime() - startNanos;
+            }
+        }
+    }
+
+    public synchronized double getActualTurnsPerSecond() {
+        return activeNanos == 0 ? 0 : completedTurns * (double) NANOS_PER_SECOND / activeNanos;
+    }
+
+    public synchronized long getCompletedTurns() {
+        return completedTurns;
+    }
+
+    public synchronized long getOverrunCount() {
+        return overruns;
+    }
+}
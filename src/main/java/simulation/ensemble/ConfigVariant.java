@@ -0,0 +1,11 @@
+package simulation.ensemble;
+
+import simulation.config.EntityCharacteristics;
+import simulation.config.RepopulateValues;
+
+/**
+ * One point of a parameter sweep: the tunable parts of a config under a short name for the report.
+ */
+public record ConfigVariant(String name, EntityCharacteristics entityCharacteristics,
+                            RepopulateValues repopulateValues) {
+}
@@ -0,0 +1,213 @@
+package simulation.ensemble;
+
+import simulation.Simulation;
+import simulation.Starter;
+import simulation.config.EntityCharacteristics;
+import simulation.config.EntityCharacteristicsFactory;
+import simulation.config.EntityStartValuesFactory;
+import simulation.config.MapSize;
+import simulation.config.RepopulateValues;
+import simulation.config.RepopulateValuesFactory;
+import simulation.config.SimulationConfig;
+import simulation.config.SimulationConfigFactory;
+import simulation.console.PrintUtil;
+import simulation.controller.Controller;
+import simulation.controller.TickScheduler;
+import simulation.entity.Entity;
+import simulation.entity.EntityType;
+import simulation.map.Location;
+import simulation.map.WorldMap;
+import simulation.map.WorldMapListener;
+import simulation.path.IndexedBFSPathFinder;
+import simulation.path.ReachabilityPathFinder;
+import simulation.renderer.NoOpRenderer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Monte-Carlo ensemble over a grid of configs: every run is an independent headless simulation with its own
+ * seeded generator, map and path finder, executed on a work-stealing pool, so runs share nothing and scale
+ * with the number of cores. Seeds are drawn from one master seed in a fixed order, so a sweep is repeatable.
+ * Run: {@code java -cp target/classes simulation.ensemble.EnsembleRunner
+ * [preset 1-3] [runs per config] [turns] [seed] [parallelism]}
+ */
+public class EnsembleRunner implements AutoCloseable {
+    private static final int DEFAULT_RUNS = 20;
+    private static final int DEFAULT_TURNS = 300;
+    private static final long DEFAULT_SEED = 42L;
+
+    private final MapSize mapSize;
+    private final int turns;
+    private final ForkJoinPool pool;
+
+    public EnsembleRunner(MapSize mapSize, int turns, int parallelism) {
+        if (turns <= 0) {
+            throw new IllegalArgumentException("turns must be positive");
+        }
+        this.mapSize = mapSize;
+        this.turns = turns;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public static void main(String[] args) {
+        MapSize mapSize = Starter.presetFromKey(args.length > 0 ? Integer.parseInt(args[0]) : 3);
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_RUNS;
+        int turns = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_TURNS;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_SEED;
+        int parallelism = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        try (EnsembleRunner runner = new EnsembleRunner(mapSize, turns, parallelism)) {
+            long start = System.nanoTime();
+            List<VariantSummary> summaries = runner.run(sweep(mapSize), runs, seed);
+            PrintUtil.printEnsembleHeader(mapSize, runs, turns, seed, (System.nanoTime() - start) / 1_000_000_000.0);
+            for (VariantSummary summary : summaries) {
+                PrintUtil.printEnsembleSummary(summary);
+            }
+        }
+    }
+
+    /**
+     * Stops the workers running the simulations.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Predator attack and the herbivore repopulation threshold at half, equal to and one and a half times
+     * (twice for the threshold) the preset value.
+     */
+    static List<ConfigVariant> sweep(MapSize mapSize) {
+        EntityCharacteristics preset = new EntityCharacteristicsFactory().geEntityStartCharacteristics(mapSize);
+        RepopulateValues presetRepopulate = new RepopulateValuesFactory().getRepopulateValues(mapSize);
+        int startHerbivores = new EntityStartValuesFactory().geStartEntitiesValues(mapSize).startHerbivoresQuantity();
+        int attack = preset.getPredator().attack();
+        int herbivoreMin = presetRepopulate.getHerbivoreMin();
+
+        List<ConfigVariant> variants = new ArrayList<>();
+        for (int variantAttack : new int[]{Math.max(1, attack / 2), attack, attack * 3 / 2}) {
+            for (int variantHerbivoreMin : new int[]{
+                    Math.max(1, herbivoreMin / 2), herbivoreMin, Math.min(startHerbivores, herbivoreMin * 2)}) {
+                EntityCharacteristics.PredatorStats predator = preset.getPredator();
+                EntityCharacteristics characteristics = new EntityCharacteristics(
+                        preset.getHerbivore(),
+                        new EntityCharacteristics.PredatorStats(
+                                predator.speed(), predator.hp(), predator.maxHp(), variantAttack),
+                        preset.getGrass());
+                variants.add(new ConfigVariant(
+                        "attack=" + variantAttack + " herbivoreMin=" + variantHerbivoreMin,
+                        characteristics,
+                        new RepopulateValuesFactory().getRepopulateValues(
+                                presetRepopulate.getGrassMin(), variantHerbivoreMin)));
+            }
+        }
+        return variants;
+    }
+
+    public List<VariantSummary> run(List<ConfigVariant> variants, int runsPerVariant, long seed) {
+        SplittableRandom master = new SplittableRandom(seed);
+        List<Callable<RunOutcome>> tasks = new ArrayList<>();
+        for (ConfigVariant variant : variants) {
+            for (int run = 0; run < runsPerVariant; run++) {
+                long runSeed = master.nextLong();
+                tasks.add(() -> runOnce(variant, runSeed));
+            }
+        }
+
+        List<Future<RunOutcome>> results = pool.invokeAll(tasks);
+        List<VariantSummary> summaries = new ArrayList<>(variants.size());
+        for (int variant = 0; variant < variants.size(); variant++) {
+            List<RunOutcome> outcomes = new ArrayList<>(runsPerVariant);
+            for (int run = 0; run < runsPerVariant; run++) {
+                outcomes.add(outcomeOf(results.get(variant * runsPerVariant + run)));
+            }
+            summaries.add(VariantSummary.of(variants.get(variant), outcomes));
+        }
+        return summaries;
+    }
+
+    /**
+     * One headless {@link Simulation} with the engine settings of the config, so a sweep runs the same turn as
+     * the game does.
+     */
+    private RunOutcome runOnce(ConfigVariant variant, long seed) {
+        SimulationConfig config = new SimulationConfigFactory().getSimulationConfig(
+                mapSize, variant.entityCharacteristics(), variant.repopulateValues(), seed);
+        WorldMap map = config.worldMap();
+        ExtinctionWatch extinctionWatch = new ExtinctionWatch(map);
+        map.addListener(extinctionWatch);
+
+        long[] turnNanos = new long[turns];
+        int extinctionTurn = RunOutcome.NO_EXTINCTION;
+        long grass = 0;
+        long herbivores = 0;
+        long predators = 0;
+        try (Simulation simulation = new Simulation(map, new NoOpRenderer(), new Controller(), config,
+                new ReachabilityPathFinder(new IndexedBFSPathFinder()), TickScheduler.asFastAsPossible())) {
+            simulation.initialize();
+            extinctionWatch.check();
+            for (int turn = 0; turn < turns; turn++) {
+                long start = System.nanoTime();
+                simulation.runTurns(1, Instant.MAX);
+                turnNanos[turn] = System.nanoTime() - start;
+                if (extinctionTurn == RunOutcome.NO_EXTINCTION && extinctionWatch.extinct) {
+                    extinctionTurn = turn + 1;
+                }
+
+                grass += map.getPopulation(EntityType.GRASS);
+                herbivores += map.getPopulation(EntityType.HERBIVORE);
+                predators += map.getPopulation(EntityType.PREDATOR);
+            }
+        }
+        return new RunOutcome(extinctionTurn,
+                (double) grass / turns, (double) herbivores / turns, (double) predators / turns, turnNanos);
+    }
+
+    /**
+     * Notices herbivores or predators dying out during the moves, before repopulation brings herbivores back.
+     */
+    private static final class ExtinctionWatch implements WorldMapListener {
+        private final WorldMap map;
+        private boolean extinct;
+
+        private ExtinctionWatch(WorldMap map) {
+            this.map = map;
+        }
+
+        private void check() {
+            extinct |= map.getPopulation(EntityType.HERBIVORE) == 0 || map.getPopulation(EntityType.PREDATOR) == 0;
+        }
+
+        @Override
+        public void onEntityAdded(Location location, Entity entity) {
+        }
+
+        @Override
+        public void onEntityRemoved(Location location, Entity entity) {
+            check();
+        }
+
+        @Override
+        public void onEntityMoved(Location from, Location to, Entity entity) {
+        }
+    }
+
+    private static RunOutcome outcomeOf(Future<RunOutcome> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("ensemble run interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("ensemble run failed", e.getCause());
+        }
+    }
+}
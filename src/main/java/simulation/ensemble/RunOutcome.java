@@ -0,0 +1,13 @@
+package simulation.ensemble;
+
+/**
+ * Result of one seeded run.
+ *
+ * @param extinctionTurn first turn after whose moves herbivores or predators were gone,
+ *                       {@link #NO_EXTINCTION} if both survived every turn
+ * @param turnNanos      wall-clock time of every turn
+ */
+public record RunOutcome(int extinctionTurn, double meanGrass, double meanHerbivores, double meanPredators,
+                         long[] turnNanos) {
+    public static final int NO_EXTINCTION = -1;
+}
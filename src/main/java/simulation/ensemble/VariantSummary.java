@@ -0,0 +1,57 @@
+package simulation.ensemble;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Outcome statistics of all runs of one {@link ConfigVariant}; turn-time percentiles are taken over the turns
+ * of every run together.
+ */
+public record VariantSummary(ConfigVariant variant, int runs, int extinctRuns, double meanExtinctionTurn,
+                             double meanGrass, double meanHerbivores, double meanPredators,
+                             double turnMillisP50, double turnMillisP95, double turnMillisP99) {
+
+    public static VariantSummary of(ConfigVariant variant, List<RunOutcome> outcomes) {
+        int extinctRuns = 0;
+        long extinctionTurns = 0;
+        double grass = 0;
+        double herbivores = 0;
+        double predators = 0;
+        int turnCount = 0;
+        for (RunOutcome outcome : outcomes) {
+            if (outcome.extinctionTurn() != RunOutcome.NO_EXTINCTION) {
+                extinctRuns++;
+                extinctionTurns += outcome.extinctionTurn();
+            }
+            grass += outcome.meanGrass();
+            herbivores += outcome.meanHerbivores();
+            predators += outcome.meanPredators();
+            turnCount += outcome.turnNanos().length;
+        }
+
+        long[] turnNanos = new long[turnCount];
+        int position = 0;
+        for (RunOutcome outcome : outcomes) {
+            System.arraycopy(outcome.turnNanos(), 0, turnNanos, position, outcome.turnNanos().length);
+            position += outcome.turnNanos().length;
+        }
+        Arrays.sort(turnNanos);
+
+        int runs = outcomes.size();
+        return new VariantSummary(variant, runs, extinctRuns,
+                extinctRuns == 0 ? Double.NaN : (double) extinctionTurns / extinctRuns,
+                grass / runs, herbivores / runs, predators / runs,
+                percentileMillis(turnNanos, 50), percentileMillis(turnNanos, 95), percentileMillis(turnNanos, 99));
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values.
+     */
+    private static double percentileMillis(long[] sortedNanos, int percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedNanos.length);
+        return sortedNanos[Math.max(rank, 1) - 1] / 1_000_000.0;
+    }
+}
@@ -1,63 +1,78 @@
 package simulation.entity;
 
+import simulation.map.Direction;
 import simulation.map.Location;
 import simulation.map.WorldMap;
+import simulation.path.PathCacheStats;
 import simulation.path.PathFinder;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.random.RandomGenerator;
 
+/**
+ * Movement and path caching shared by all creatures. Speed, health, attack and the previous cell are kept by
+ * the subclass: in its own fields ({@link FieldCreature}) or in a slot of a {@link CreatureStorage}
+ * ({@link StoredCreature}).
+ */
 public abstract class Creature extends Entity {
+    static final int NO_CELL = -1;
     private static final int STEPS_LIMITER = 2;
 
-    private final int speed;
-    private int hp;
-    private final int maxHp;
+    private final EntityType goalType;
+    private final int goalMask;
 
-    private Location prevLocation;
+    private List<Location> cachedPath;
+    private int cachedPathPosition;
 
-    public Creature(int speed, int hp, int maxHp) {
-        this.speed = speed;
-        this.hp = hp;
-        this.maxHp = maxHp;
+    protected Creature(EntityType type, EntityType goalType) {
+        super(type);
+        this.goalType = goalType;
+        this.goalMask = goalType.mask();
     }
 
-    public int getSpeed() {
-        return speed;
+    /**
+     * Brings a recycled creature back as a newborn one: fresh attributes, no remembered path or cell.
+     */
+    void respawn(int speed, int hp, int maxHp, int attack) {
+        resetAttributes(speed, hp, maxHp, attack);
+        cachedPath = null;
+        cachedPathPosition = 0;
     }
 
-    public int getHp() {
-        return hp;
-    }
+    /**
+     * Sets the attributes of a newborn creature, the previous cell being {@link #NO_CELL}.
+     */
+    abstract void resetAttributes(int speed, int hp, int maxHp, int attack);
+
+    public abstract int getSpeed();
+
+    public abstract int getHp();
+
+    abstract void setHp(int hp);
+
+    abstract int getMaxHp();
+
+    abstract int getAttack();
+
+    abstract int getPrevCell();
 
-    public void makeMove(WorldMap worldMap, Location oldLocation, PathFinder pathFinder) {
-        Predicate<Entity> goal = isGoal();
+    abstract void setPrevCell(int cell);
+
+    public void makeMove(WorldMap worldMap,
+                         Location oldLocation,
+                         PathFinder pathFinder,
+                         PathCacheStats pathCacheStats,
+                         RandomGenerator random) {
         Location currentLocation = oldLocation;
         int stepsLeft = getSpeed();
 
         do {
-            List<Location> steps = pathFinder.findPath(worldMap, currentLocation, goal);
-
-            Location nextLocation;
-            if (!steps.isEmpty() && steps.size() >= STEPS_LIMITER) {
-                nextLocation = steps.get(1);
-            } else {
-                nextLocation = roam(worldMap, currentLocation);
-            }
-
+            Location nextLocation = chooseNextLocation(worldMap, currentLocation, pathFinder, pathCacheStats, random);
             if (nextLocation.equals(currentLocation)) {
                 return;
             }
 
-            checkLocations(worldMap, currentLocation);
-
-            move(worldMap, nextLocation, currentLocation, goal);
-
-            StepResult result = checkStepResult(worldMap, nextLocation, goal);
+            StepResult result = step(worldMap, currentLocation, nextLocation);
             if (result == StepResult.MOVED) {
                 currentLocation = nextLocation;
                 stepsLeft--;
@@ -69,85 +84,193 @@ public abstract class Creature extends Entity {
         } while (stepsLeft > 0);
     }
 
-    private Location roam(WorldMap worldMap, Location oldLocation) {
-        List<Location> listOfClosestLocations = oldLocation.neighbourLocations();
-        Collections.shuffle(listOfClosestLocations);
-        List<Location> validMoves = makeValidMovesList(worldMap, listOfClosestLocations);
-        validMoves = filterValidMoves(validMoves);
-        if (validMoves.isEmpty()) {
-            return oldLocation;
+    /**
+     * Chooses the next step without touching the map; only the creature's own path cache and roaming memory
+     * change, so creatures may plan concurrently.
+     */
+    public Intent planStep(WorldMap worldMap,
+                           Location currentLocation,
+                           PathFinder pathFinder,
+                           PathCacheStats pathCacheStats,
+                           RandomGenerator random) {
+        Location nextLocation = chooseNextLocation(worldMap, currentLocation, pathFinder, pathCacheStats, random);
+        if (nextLocation.equals(currentLocation)) {
+            return Intent.stay(currentLocation);
         }
-        Collections.shuffle(validMoves);
-        prevLocation = oldLocation;
-        return validMoves.get(0);
+        return new Intent(currentLocation, nextLocation,
+                worldMap.isCellFree(nextLocation.x(), nextLocation.y()) ? Intent.Kind.MOVE : Intent.Kind.INTERACT);
     }
 
-    private List<Location> makeValidMovesList(WorldMap worldMap, List<Location> listOfClosestLocations) {
-        List<Location> validMoves = new ArrayList<>();
-        for (Location nearby : listOfClosestLocations) {
-            if (worldMap.isInsideMap(nearby) && worldMap.isCellFree(nearby)) {
-                validMoves.add(nearby);
-            }
+    /**
+     * Carries out a planned step against the current map, which may differ from the one it was planned on.
+     */
+    public StepResult applyStep(WorldMap worldMap, Intent intent) {
+        return step(worldMap, intent.from(), intent.to());
+    }
+
+    /**
+     * Allocates nothing unless the path finder has to be asked: the cached path is followed, or a free
+     * neighbour is picked in place.
+     */
+    private Location chooseNextLocation(WorldMap worldMap,
+                                        Location currentLocation,
+                                        PathFinder pathFinder,
+                                        PathCacheStats pathCacheStats,
+                                        RandomGenerator random) {
+        Location nextLocation = nextStepOnCachedPath(worldMap, currentLocation);
+        if (nextLocation != null) {
+            pathCacheStats.recordHit();
+            return nextLocation;
+        }
+        pathCacheStats.recordMiss();
+        List<Location> steps = pathFinder.findPath(worldMap, currentLocation, getGoalType());
+        if (!steps.isEmpty() && steps.size() >= STEPS_LIMITER) {
+            cachedPath = steps;
+            cachedPathPosition = 0;
+            return steps.get(1);
         }
-        return validMoves;
+        cachedPath = null;
+        return roam(worldMap, currentLocation, random);
+    }
+
+    public boolean hasUsableCachedPath(WorldMap worldMap, Location currentLocation) {
+        return nextStepOnCachedPath(worldMap, currentLocation) != null;
     }
 
-    private List<Location> filterValidMoves(List<Location> validMoves) {
-        if (prevLocation != null && validMoves.size() > 1) {
-            validMoves = validMoves.stream()
-                    .filter(location1 -> !location1.equals(prevLocation)).collect(Collectors.toList());
+    /**
+     * Hands over a path found ahead of the move, e.g. by a batch query; it is re-validated like any cached path.
+     */
+    public void seedPath(List<Location> path) {
+        if (path != null && path.size() >= STEPS_LIMITER) {
+            cachedPath = path;
+            cachedPathPosition = 0;
         }
-        return validMoves;
     }
 
-    public Predicate<Entity> isGoal() {
-        System.out.println("isGoal: " + Entity.class);
-        return entity -> false;
+    /**
+     * @return the next cell of the previously found path if it is still usable: the creature stands on it,
+     * the next cell is free or a goal and the target at its end is still there; otherwise {@code null}
+     */
+    private Location nextStepOnCachedPath(WorldMap worldMap, Location currentLocation) {
+        if (cachedPath == null
+                || cachedPathPosition + 1 >= cachedPath.size()
+                || !cachedPath.get(cachedPathPosition).equals(currentLocation)) {
+            return null;
+        }
+        Location targetLocation = cachedPath.get(cachedPath.size() - 1);
+        if (!worldMap.holdsAnyOf(targetLocation.x(), targetLocation.y(), goalMask)) {
+            return null;
+        }
+        Location next = cachedPath.get(cachedPathPosition + 1);
+        Entity nextEntity = worldMap.entityAt(next.x(), next.y());
+        if (nextEntity != null && !isGoal(nextEntity)) {
+            return null;
+        }
+        return next;
     }
 
-    private void checkLocations(WorldMap worldMap, Location oldLocation) {
-        Optional<Entity> entity = worldMap.getEntity(oldLocation);
-        if (!(entity.isPresent() && entity.get().equals(this))) {
-            throw new IllegalStateException("the creature is expected at " + oldLocation);
+    private void advanceCachedPath(Location reachedLocation) {
+        if (cachedPath != null
+                && cachedPathPosition + 1 < cachedPath.size()
+                && cachedPath.get(cachedPathPosition + 1).equals(reachedLocation)) {
+            cachedPathPosition++;
+        } else {
+            cachedPath = null;
         }
     }
 
-    private void move(WorldMap worldMap, Location nextLocation, Location oldLocation, Predicate<Entity> isGoal) {
-        if (worldMap.isCellFree(nextLocation)) {
-            worldMap.removeEntity(oldLocation);
-            worldMap.tryAddEntity(nextLocation, this);
-        } else if (isEntityPresent(worldMap, nextLocation) && isGoal.test(getEntity(worldMap, nextLocation))) {
-            if (interactWithTarget(worldMap, nextLocation, getEntity(worldMap, nextLocation))) {
-                worldMap.removeEntity(oldLocation);
-                worldMap.tryAddEntity(nextLocation, this);
+    /**
+     * Uniformly picks a free neighbour, avoiding the cell the creature just came from unless it is the only
+     * one: the free neighbours are counted first, then the chosen one is found by a second pass.
+     */
+    private Location roam(WorldMap worldMap, Location oldLocation, RandomGenerator random) {
+        int freeNeighbours = 0;
+        boolean cameFromFreeNeighbour = false;
+        List<Direction> directions = Direction.NEIGHBOUR_ORDER;
+        for (int i = 0; i < directions.size(); i++) {
+            int x = oldLocation.x() + directions.get(i).getX();
+            int y = oldLocation.y() + directions.get(i).getY();
+            if (worldMap.isInsideMap(x, y) && worldMap.isCellFree(x, y)) {
+                freeNeighbours++;
+                cameFromFreeNeighbour |= isPrevCell(worldMap, x, y);
+            }
+        }
+        if (freeNeighbours == 0) {
+            return oldLocation;
+        }
+
+        boolean skipPrevCell = cameFromFreeNeighbour && freeNeighbours > 1;
+        int choice = random.nextInt(skipPrevCell ? freeNeighbours - 1 : freeNeighbours);
+        for (int i = 0; i < directions.size(); i++) {
+            int x = oldLocation.x() + directions.get(i).getX();
+            int y = oldLocation.y() + directions.get(i).getY();
+            if (!worldMap.isInsideMap(x, y) || !worldMap.isCellFree(x, y)
+                    || (skipPrevCell && isPrevCell(worldMap, x, y))) {
+                continue;
+            }
+            if (choice-- == 0) {
+                setPrevCell(worldMap.toIndex(oldLocation.x(), oldLocation.y()));
+                return worldMap.locationAt(x, y);
             }
-        } else if (isEntityPresent(worldMap, nextLocation) && !isGoal.test(getEntity(worldMap, nextLocation))) {
-            return;
         }
+        return oldLocation;
     }
 
-    private boolean isEntityPresent(WorldMap worldMap, Location nextLocation) {
-        return worldMap.getEntity(nextLocation).isPresent();
+    private boolean isPrevCell(WorldMap worldMap, int x, int y) {
+        return getPrevCell() == worldMap.toIndex(x, y);
     }
 
-    private Entity getEntity(WorldMap worldMap, Location nextLocation) {
-        return worldMap.getEntity(nextLocation).get();
+    public final EntityType getGoalType() {
+        return goalType;
     }
 
-    abstract boolean interactWithTarget(WorldMap worldMap, Location targetEntityLocation, Entity target);
+    public final boolean isGoal(Entity entity) {
+        return entity.isAnyOf(goalMask);
+    }
 
-    private StepResult checkStepResult(WorldMap worldMap, Location nextLocation, Predicate<Entity> goal) {
-        Optional<Entity> nextEntity = worldMap.getEntity(nextLocation);
-        if (nextEntity.isPresent() && nextEntity.get().equals(this)) {
-            return StepResult.MOVED;
-        } else if (nextEntity.isPresent() && goal.test(nextEntity.get())) {
+    /**
+     * One lookup of the next cell decides the step: a free cell is entered, a goal is interacted with and
+     * entered if the interaction removed it, anything else stops the creature.
+     */
+    private StepResult step(WorldMap worldMap, Location oldLocation, Location nextLocation) {
+        checkLocations(worldMap, oldLocation);
+        Entity nextEntity = worldMap.entityAt(nextLocation.x(), nextLocation.y());
+        if (nextEntity == null) {
+            return enter(worldMap, oldLocation, nextLocation);
+        }
+        if (isGoal(nextEntity)) {
+            if (interactWithTarget(worldMap, nextLocation, nextEntity)) {
+                return enter(worldMap, oldLocation, nextLocation);
+            }
             return StepResult.ATTACKED;
-        } else {
+        }
+        return StepResult.NO_ACTION;
+    }
+
+    private StepResult enter(WorldMap worldMap, Location oldLocation, Location nextLocation) {
+        if (!worldMap.moveEntity(oldLocation, nextLocation)) {
             return StepResult.NO_ACTION;
         }
+        advanceCachedPath(nextLocation);
+        onEntered(worldMap, nextLocation);
+        return StepResult.MOVED;
+    }
+
+    /**
+     * Called after every step onto a new cell.
+     */
+    void onEntered(WorldMap worldMap, Location location) {
+    }
+
+    private void checkLocations(WorldMap worldMap, Location oldLocation) {
+        if (worldMap.entityAt(oldLocation.x(), oldLocation.y()) != this) {
+            throw new IllegalStateException("the creature is expected at " + oldLocation);
+        }
     }
 
-    private enum StepResult {
+    abstract boolean interactWithTarget(WorldMap worldMap, Location targetEntityLocation, Entity target);
+
+    public enum StepResult {
         MOVED,
         ATTACKED,
         NO_ACTION
@@ -155,17 +278,14 @@ public abstract class Creature extends Entity {
     }
 
     public void heal(int healAmount) {
-        hp += healAmount;
-        if (hp >= maxHp) {
-            hp = maxHp;
-        }
+        setHp(Math.min(getHp() + healAmount, getMaxHp()));
     }
 
     public void takeDamage(int damageAmount) {
-        hp -= damageAmount;
+        setHp(getHp() - damageAmount);
     }
 
     public boolean isDead() {
-        return hp <= 0;
+        return getHp() <= 0;
     }
 }
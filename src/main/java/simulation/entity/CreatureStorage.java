@@ -0,0 +1,144 @@
+package simulation.entity;
+
+import simulation.map.Location;
+import simulation.map.WorldMapListener;
+
+import java.util.Arrays;
+
+/**
+ * Creature attributes kept in parallel primitive arrays indexed by creature id, the creatures being
+ * {@link StoredCreature} views holding the storage and their id. Passes over all creatures, such as
+ * {@link #maxSpeed()}, then read one flat array instead of following a reference per creature; the
+ * attributes take no less memory than creature fields, since the views still exist.
+ * <p>
+ * Register the storage as a listener of the map its creatures live on, so the slot of a creature removed
+ * from the map is reused by the next one created; every slot remembers its owner, so a recycled creature
+ * keeps its slot only if nobody took it over. Creating creatures must not overlap with moves, since a
+ * growing storage replaces its arrays.
+ */
+public final class CreatureStorage implements WorldMapListener {
+    private static final int MIN_CAPACITY = 16;
+
+    int[] speed;
+    int[] hp;
+    int[] maxHp;
+    int[] attack;
+    int[] prevCell;
+    private StoredCreature[] owners;
+
+    private int[] freeIds = new int[0];
+    private int freeCount;
+    private int highWaterMark;
+
+    public CreatureStorage() {
+        this(MIN_CAPACITY);
+    }
+
+    public CreatureStorage(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("initial capacity must be positive");
+        }
+        speed = new int[initialCapacity];
+        hp = new int[initialCapacity];
+        maxHp = new int[initialCapacity];
+        attack = new int[initialCapacity];
+        prevCell = new int[initialCapacity];
+        owners = new StoredCreature[initialCapacity];
+    }
+
+    synchronized int allocate(StoredCreature owner, int speed, int hp, int maxHp, int attack) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if (highWaterMark == this.speed.length) {
+                grow();
+            }
+            id = highWaterMark++;
+        }
+        fill(owner, id, speed, hp, maxHp, attack);
+        return id;
+    }
+
+    /**
+     * Refills the slot of a recycled creature, or gives it a new one if its slot was freed in the meantime.
+     *
+     * @return the id the creature holds from now on
+     */
+    synchronized int reacquire(StoredCreature owner, int id, int speed, int hp, int maxHp, int attack) {
+        if (owners[id] != owner) {
+            return allocate(owner, speed, hp, maxHp, attack);
+        }
+        fill(owner, id, speed, hp, maxHp, attack);
+        return id;
+    }
+
+    private void fill(StoredCreature owner, int id, int speed, int hp, int maxHp, int attack) {
+        owners[id] = owner;
+        this.speed[id] = speed;
+        this.hp[id] = hp;
+        this.maxHp[id] = maxHp;
+        this.attack[id] = attack;
+        this.prevCell[id] = Creature.NO_CELL;
+    }
+
+    /**
+     * Frees the slot for the next creature; until then a stale view of it reads as dead and still.
+     */
+    synchronized void release(StoredCreature owner, int id) {
+        if (owners[id] != owner) {
+            return;
+        }
+        owners[id] = null;
+        speed[id] = 0;
+        hp[id] = 0;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, Math.max(MIN_CAPACITY, freeIds.length * 2));
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    private void grow() {
+        int capacity = speed.length * 2;
+        speed = Arrays.copyOf(speed, capacity);
+        hp = Arrays.copyOf(hp, capacity);
+        maxHp = Arrays.copyOf(maxHp, capacity);
+        attack = Arrays.copyOf(attack, capacity);
+        prevCell = Arrays.copyOf(prevCell, capacity);
+        owners = Arrays.copyOf(owners, capacity);
+    }
+
+    /**
+     * @return the highest speed of the creatures holding a slot, found in one pass over the speed array
+     */
+    public synchronized int maxSpeed() {
+        int max = 0;
+        for (int id = 0; id < highWaterMark; id++) {
+            max = Math.max(max, speed[id]);
+        }
+        return max;
+    }
+
+    public synchronized int getLiveCount() {
+        return highWaterMark - freeCount;
+    }
+
+    public synchronized int getCapacity() {
+        return speed.length;
+    }
+
+    @Override
+    public void onEntityAdded(Location location, Entity entity) {
+    }
+
+    @Override
+    public void onEntityRemoved(Location location, Entity entity) {
+        if (entity instanceof StoredCreature creature && creature.storage == this) {
+            release(creature, creature.id);
+        }
+    }
+
+    @Override
+    public void onEntityMoved(Location from, Location to, Entity entity) {
+    }
+}
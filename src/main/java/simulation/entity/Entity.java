@@ -1,4 +1,23 @@
 package simulation.entity;
 
 public abstract class Entity {
+    private final EntityType type;
+
+    protected Entity(EntityType type) {
+        this.type = type;
+    }
+
+    /**
+     * Fixed at construction, so type checks are a field read instead of an {@code instanceof} chain.
+     */
+    public final EntityType getType() {
+        return type;
+    }
+
+    /**
+     * @param typeMask {@link EntityType#mask()} values OR-ed together
+     */
+    public final boolean isAnyOf(int typeMask) {
+        return (type.mask() & typeMask) != 0;
+    }
 }
@@ -8,32 +8,96 @@ public class EntityFactory {
     private final EntityCharacteristics.GrassStats grassStats;
     private final EntityCharacteristics.HerbivoreStats herbivoreStats;
     private final EntityCharacteristics.PredatorStats predatorStats;
+    private final CreatureStorage creatureStorage;
+    private final EntityPool entityPool;
 
     public EntityFactory(EntityCharacteristics entityCharacteristics) {
+        this(entityCharacteristics, null, null);
+    }
+
+    public EntityFactory(EntityCharacteristics entityCharacteristics, CreatureStorage creatureStorage) {
+        this(entityCharacteristics, creatureStorage, null);
+    }
+
+    /**
+     * @param creatureStorage storage shared by every creature this factory creates, or {@code null} to keep
+     *                        the attributes of each creature in its own fields
+     * @param entityPool      removed entities to reuse before creating new ones, or {@code null} to always create
+     */
+    public EntityFactory(EntityCharacteristics entityCharacteristics,
+                         CreatureStorage creatureStorage,
+                         EntityPool entityPool) {
         this.entityCharacteristics = entityCharacteristics;
+        this.creatureStorage = creatureStorage;
+        this.entityPool = entityPool;
         this.grassStats = entityCharacteristics.getGrass();
         this.herbivoreStats = entityCharacteristics.getHerbivore();
         this.predatorStats = entityCharacteristics.getPredator();
     }
 
     public Entity createEntity(EntityType type) {
+        Entity recycled = entityPool != null ? entityPool.take(type) : null;
+        if (recycled != null) {
+            respawn(recycled);
+            return recycled;
+        }
         return switch (type) {
             case ROCK -> new Rock();
             case TREE -> new Tree();
             case GRASS -> new Grass(
                     grassStats.nutrition()
             );
-            case HERBIVORE -> new Herbivore(
+            case HERBIVORE -> createHerbivore();
+            case PREDATOR -> createPredator();
+        };
+    }
+
+    private Creature createHerbivore() {
+        if (creatureStorage != null) {
+            return new StoredHerbivore(
+                    creatureStorage,
                     herbivoreStats.speed(),
                     herbivoreStats.hp(),
                     herbivoreStats.maxHp()
             );
-            case PREDATOR -> new Predator(
+        }
+        return new Herbivore(
+                herbivoreStats.speed(),
+                herbivoreStats.hp(),
+                herbivoreStats.maxHp()
+        );
+    }
+
+    private Creature createPredator() {
+        if (creatureStorage != null) {
+            return new StoredPredator(
+                    creatureStorage,
                     predatorStats.speed(),
                     predatorStats.hp(),
                     predatorStats.maxHp(),
                     predatorStats.attack()
             );
-        };
+        }
+        return new Predator(
+                predatorStats.speed(),
+                predatorStats.hp(),
+                predatorStats.maxHp(),
+                predatorStats.attack()
+        );
+    }
+
+    private void respawn(Entity entity) {
+        switch (entity.getType()) {
+            case GRASS -> ((Grass) entity).respawn(
+                    grassStats.nutrition()
+            );
+            case HERBIVORE -> ((Creature) entity).respawn(
+                    herbivoreStats.speed(),
+                    herbivoreStats.hp(),
+                    herbivoreStats.maxHp(),
+                    0
+            );
+            default -> throw new IllegalArgumentException("entity cannot be recycled: " + entity.getType());
+        }
     }
 }
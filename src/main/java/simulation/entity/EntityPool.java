@@ -0,0 +1,87 @@
+package simulation.entity;
+
+import simulation.map.Location;
+import simulation.map.WorldMapListener;
+
+/**
+ * Keeps entities removed from a map, up to a bounded number per type, so {@link EntityFactory} can reset and
+ * reuse them instead of allocating new ones. Register it as a listener of the map; moves are ignored. Only grass
+ * and herbivores, the types repopulation keeps spawning, are pooled.
+ * <p>
+ * A removed entity is reused on a later spawn, so a reference to it must not be kept past its removal.
+ */
+public class EntityPool implements WorldMapListener {
+    private final int capacityPerType;
+    private final Entity[][] pooled = new Entity[EntityType.values().length][];
+    private final int[] pooledCounts = new int[EntityType.values().length];
+
+    private long hits;
+    private long misses;
+
+    public EntityPool(int capacityPerType) {
+        if (capacityPerType < 0) {
+            throw new IllegalArgumentException("pool capacity cannot be negative");
+        }
+        this.capacityPerType = capacityPerType;
+    }
+
+    /**
+     * @return a pooled entity of the given type, or {@code null} if the caller has to create one
+     */
+    synchronized Entity take(EntityType type) {
+        if (!isPooled(type)) {
+            return null;
+        }
+        int ordinal = type.ordinal();
+        if (pooledCounts[ordinal] == 0) {
+            misses++;
+            return null;
+        }
+        hits++;
+        Entity entity = pooled[ordinal][--pooledCounts[ordinal]];
+        pooled[ordinal][pooledCounts[ordinal]] = null;
+        return entity;
+    }
+
+    @Override
+    public void onEntityAdded(Location location, Entity entity) {
+    }
+
+    @Override
+    public synchronized void onEntityRemoved(Location location, Entity entity) {
+        EntityType type = entity.getType();
+        int ordinal = type.ordinal();
+        if (!isPooled(type) || pooledCounts[ordinal] == capacityPerType) {
+            return;
+        }
+        if (pooled[ordinal] == null) {
+            pooled[ordinal] = new Entity[capacityPerType];
+        }
+        pooled[ordinal][pooledCounts[ordinal]++] = entity;
+    }
+
+    private static boolean isPooled(EntityType type) {
+        return type == EntityType.GRASS || type == EntityType.HERBIVORE;
+    }
+
+    @Override
+    public void onEntityMoved(Location from, Location to, Entity entity) {
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public synchronized int getPooledCount(EntityType type) {
+        return pooledCounts[type.ordinal()];
+    }
+}
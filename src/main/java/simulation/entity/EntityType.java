@@ -7,14 +7,23 @@ public enum EntityType {
     HERBIVORE,
     PREDATOR;
 
+    private final int mask = 1 << ordinal();
+
+    /**
+     * Single-bit code of the type; several of them OR-ed together match any of those types with one int test.
+     */
+    public int mask() {
+        return mask;
+    }
+
     public boolean matches(Entity entity) {
-        return switch (this) {
-            case ROCK -> entity instanceof Rock;
-            case GRASS -> entity instanceof Grass;
-            case TREE -> entity instanceof Tree;
-            case HERBIVORE -> entity instanceof Herbivore;
-            case PREDATOR -> entity instanceof Predator;
-            default -> throw new IllegalArgumentException("wrong type while matching entity: " + this);
-        };
+        return entity.getType() == this;
+    }
+
+    /**
+     * Rocks and trees are placed once and never move, path finders may precompute terrain from them.
+     */
+    public boolean isImmovable() {
+        return this == ROCK || this == TREE;
     }
 }
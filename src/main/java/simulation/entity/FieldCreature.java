@@ -0,0 +1,65 @@
+package simulation.entity;
+
+/**
+ * A creature keeping its attributes in its own fields.
+ */
+abstract class FieldCreature extends Creature {
+    private int speed;
+    private int hp;
+    private int maxHp;
+    private int attack;
+    private int prevCell;
+
+    FieldCreature(EntityType type, EntityType goalType, int speed, int hp, int maxHp, int attack) {
+        super(type, goalType);
+        this.speed = speed;
+        this.hp = hp;
+        this.maxHp = maxHp;
+        this.attack = attack;
+        this.prevCell = NO_CELL;
+    }
+
+    @Override
+    final void resetAttributes(int speed, int hp, int maxHp, int attack) {
+        this.speed = speed;
+        this.hp = hp;
+        this.maxHp = maxHp;
+        this.attack = attack;
+        this.prevCell = NO_CELL;
+    }
+
+    @Override
+    public final int getSpeed() {
+        return speed;
+    }
+
+    @Override
+    public final int getHp() {
+        return hp;
+    }
+
+    @Override
+    final void setHp(int hp) {
+        this.hp = hp;
+    }
+
+    @Override
+    final int getMaxHp() {
+        return maxHp;
+    }
+
+    @Override
+    final int getAttack() {
+        return attack;
+    }
+
+    @Override
+    final int getPrevCell() {
+        return prevCell;
+    }
+
+    @Override
+    final void setPrevCell(int cell) {
+        prevCell = cell;
+    }
+}
@@ -1,9 +1,14 @@
 package simulation.entity;
 
 public class Grass extends StaticEntity {
-    private final int nutrition;
+    private int nutrition;
 
     public Grass(int nutrition) {
+        super(EntityType.GRASS);
+        this.nutrition = nutrition;
+    }
+
+    void respawn(int nutrition) {
         this.nutrition = nutrition;
     }
 
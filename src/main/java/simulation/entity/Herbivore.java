@@ -3,23 +3,38 @@ package simulation.entity;
 import simulation.map.Location;
 import simulation.map.WorldMap;
 
-import java.util.function.Predicate;
-
-public final class Herbivore extends Creature {
+public final class Herbivore extends FieldCreature {
 
     public Herbivore(int speed, int hp, int maxHp) {
-        super(speed, hp, maxHp);
+        super(EntityType.HERBIVORE, EntityType.GRASS, speed, hp, maxHp, 0);
     }
 
     @Override
-    public Predicate<Entity> isGoal() {
-        return entity -> entity instanceof Grass;
+    void onEntered(WorldMap worldMap, Location location) {
+        graze(this, worldMap, location);
     }
 
     @Override
     boolean interactWithTarget(WorldMap worldMap, Location targetEntityLocation, Entity target) {
+        return eat(this, worldMap, targetEntityLocation, target);
+    }
+
+    /**
+     * On a map with a grass layer grass does not block the way; it is grazed by stepping onto it.
+     */
+    static void graze(Creature herbivore, WorldMap worldMap, Location location) {
+        if (!worldMap.hasGrassLayer()) {
+            return;
+        }
+        int nutrition = worldMap.grazeGrass(location);
+        if (nutrition > 0) {
+            herbivore.heal(nutrition);
+        }
+    }
+
+    static boolean eat(Creature herbivore, WorldMap worldMap, Location targetEntityLocation, Entity target) {
         worldMap.removeEntity(targetEntityLocation);
-        heal(((Grass) target).getNutrition());
+        herbivore.heal(((Grass) target).getNutrition());
         return true;
     }
 }
@@ -0,0 +1,20 @@
+package simulation.entity;
+
+import simulation.map.Location;
+
+/**
+ * One step a creature wants to take, planned against the map as it was before anybody moved:
+ * go to a free cell, interact with a goal (attack or eat), or stay.
+ */
+public record Intent(Location from, Location to, Kind kind) {
+
+    public static Intent stay(Location location) {
+        return new Intent(location, location, Kind.STAY);
+    }
+
+    public enum Kind {
+        STAY,
+        MOVE,
+        INTERACT
+    }
+}
@@ -3,32 +3,27 @@ package simulation.entity;
 import simulation.map.Location;
 import simulation.map.WorldMap;
 
-import java.util.function.Predicate;
-
-public final class Predator extends Creature {
-
-    private final int attack;
+public final class Predator extends FieldCreature {
 
     public Predator(int speed, int hp, int maxHp, int attack) {
-        super(speed, hp, maxHp);
-        this.attack = attack;
+        super(EntityType.PREDATOR, EntityType.HERBIVORE, speed, hp, maxHp, attack);
     }
 
     @Override
-    public Predicate<Entity> isGoal() {
-        return entity -> entity instanceof Herbivore;
+    boolean interactWithTarget(WorldMap worldMap, Location targetEntityLocation, Entity target) {
+        return hunt(this, worldMap, targetEntityLocation, target);
     }
 
-    @Override
-    boolean interactWithTarget(WorldMap worldMap, Location targetEntityLocation, Entity target) {
-        Herbivore herbivore = (Herbivore) target;
+    static boolean hunt(Creature predator, WorldMap worldMap, Location targetEntityLocation, Entity target) {
+        Creature herbivore = (Creature) target;
+        int attack = predator.getAttack();
         herbivore.takeDamage(attack);
         boolean result = false;
         if (herbivore.isDead()) {
             worldMap.removeEntity(targetEntityLocation);
             result = true;
         }
-        heal(attack);
+        predator.heal(attack);
         return result;
     }
 }
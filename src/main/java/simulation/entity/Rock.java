@@ -1,4 +1,7 @@
 package simulation.entity;
 
 public class Rock extends StaticEntity {
+    public Rock() {
+        super(EntityType.ROCK);
+    }
 }
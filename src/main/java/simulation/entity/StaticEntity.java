@@ -1,4 +1,7 @@
 package simulation.entity;
 
 public abstract class StaticEntity extends Entity {
+    protected StaticEntity(EntityType type) {
+        super(type);
+    }
 }
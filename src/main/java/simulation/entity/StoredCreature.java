@@ -0,0 +1,62 @@
+package simulation.entity;
+
+/**
+ * A creature whose attributes live in one slot of a {@link CreatureStorage}; the object holds only the
+ * storage and its slot id.
+ */
+abstract class StoredCreature extends Creature {
+    final CreatureStorage storage;
+    int id;
+
+    StoredCreature(EntityType type,
+                   EntityType goalType,
+                   CreatureStorage storage,
+                   int speed,
+                   int hp,
+                   int maxHp,
+                   int attack) {
+        super(type, goalType);
+        this.storage = storage;
+        this.id = storage.allocate(this, speed, hp, maxHp, attack);
+    }
+
+    @Override
+    final void resetAttributes(int speed, int hp, int maxHp, int attack) {
+        id = storage.reacquire(this, id, speed, hp, maxHp, attack);
+    }
+
+    @Override
+    public final int getSpeed() {
+        return storage.speed[id];
+    }
+
+    @Override
+    public final int getHp() {
+        return storage.hp[id];
+    }
+
+    @Override
+    final void setHp(int hp) {
+        storage.hp[id] = hp;
+    }
+
+    @Override
+    final int getMaxHp() {
+        return storage.maxHp[id];
+    }
+
+    @Override
+    final int getAttack() {
+        return storage.attack[id];
+    }
+
+    @Override
+    final int getPrevCell() {
+        return storage.prevCell[id];
+    }
+
+    @Override
+    final void setPrevCell(int cell) {
+        storage.prevCell[id] = cell;
+    }
+}
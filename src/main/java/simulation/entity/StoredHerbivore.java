@@ -0,0 +1,24 @@
+package simulation.entity;
+
+import simulation.map.Location;
+import simulation.map.WorldMap;
+
+/**
+ * A {@link Herbivore} kept in a {@link CreatureStorage}.
+ */
+final class StoredHerbivore extends StoredCreature {
+
+    StoredHerbivore(CreatureStorage storage, int speed, int hp, int maxHp) {
+        super(EntityType.HERBIVORE, EntityType.GRASS, storage, speed, hp, maxHp, 0);
+    }
+
+    @Override
+    void onEntered(WorldMap worldMap, Location location) {
+        Herbivore.graze(this, worldMap, location);
+    }
+
+    @Override
+    boolean interactWithTarget(WorldMap worldMap, Location targetEntityLocation, Entity target) {
+        return Herbivore.eat(this, worldMap, targetEntityLocation, target);
+    }
+}
@@ -0,0 +1,19 @@
+package simulation.entity;
+
+import simulation.map.Location;
+import simulation.map.WorldMap;
+
+/**
+ * A {@link Predator} kept in a {@link CreatureStorage}.
+ */
+final class StoredPredator extends StoredCreature {
+
+    StoredPredator(CreatureStorage storage, int speed, int hp, int maxHp, int attack) {
+        super(EntityType.PREDATOR, EntityType.HERBIVORE, storage, speed, hp, maxHp, attack);
+    }
+
+    @Override
+    boolean interactWithTarget(WorldMap worldMap, Location targetEntityLocation, Entity target) {
+        return Predator.hunt(this, worldMap, targetEntityLocation, target);
+    }
+}
@@ -1,4 +1,7 @@
 package simulation.entity;
 
 public class Tree extends StaticEntity {
+    public Tree() {
+        super(EntityType.TREE);
+    }
 }
@@ -0,0 +1,47 @@
+package simulation.map;
+
+import simulation.entity.Entity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dense backend: one slot per cell, indexed by {@code y * width + x}.
+ */
+final class ArrayCellStorage implements CellStorage {
+    private final Entity[] cells;
+    private final int width;
+
+    ArrayCellStorage(int width, int height) {
+        this.width = width;
+        this.cells = new Entity[width > 0 && height > 0 ? width * height : 0];
+    }
+
+    @Override
+    public Entity get(int index) {
+        return cells[index];
+    }
+
+    @Override
+    public void put(int index, Entity entity) {
+        cells[index] = entity;
+    }
+
+    @Override
+    public Entity remove(int index) {
+        Entity removed = cells[index];
+        cells[index] = null;
+        return removed;
+    }
+
+    @Override
+    public Map<Location, Entity> snapshot() {
+        Map<Location, Entity> snapshot = new HashMap<>();
+        for (int index = 0; index < cells.length; index++) {
+            if (cells[index] != null) {
+                snapshot.put(new Location(index % width, index / width), cells[index]);
+            }
+        }
+        return snapshot;
+    }
+}
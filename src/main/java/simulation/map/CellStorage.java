@@ -0,0 +1,16 @@
+package simulation.map;
+
+import simulation.entity.Entity;
+
+import java.util.Map;
+
+interface CellStorage {
+
+    Entity get(int index);
+
+    void put(int index, Entity entity);
+
+    Entity remove(int index);
+
+    Map<Location, Entity> snapshot();
+}
@@ -1,11 +1,18 @@
 package simulation.map;
 
+import java.util.List;
+
 public enum Direction {
     LEFT(-1, 0),
     RIGHT(1, 0),
     UP(0, -1),
     DOWN(0, 1);
 
+    /**
+     * Order in which neighbours are visited; path finders rely on it for tie-breaking.
+     */
+    public static final List<Direction> NEIGHBOUR_ORDER = List.of(RIGHT, LEFT, UP, DOWN);
+
     private final int x;
     private final int y;
 
@@ -0,0 +1,93 @@
+package simulation.map;
+
+import java.util.function.IntPredicate;
+import java.util.random.RandomGenerator;
+
+/**
+ * Indexed free-list of cell indices: O(1) add and swap-remove, O(k) uniform sampling of k cells.
+ */
+final class FreeCellIndex {
+    private static final int NOT_FREE = -1;
+
+    private final int[] freeCells;
+    private final int[] slots;
+    private int size;
+
+    FreeCellIndex(int cellCount) {
+        this.freeCells = new int[cellCount];
+        this.slots = new int[cellCount];
+        for (int index = 0; index < cellCount; index++) {
+            freeCells[index] = index;
+            slots[index] = index;
+        }
+        this.size = cellCount;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void markOccupied(int index) {
+        int slot = slots[index];
+        if (slot == NOT_FREE) {
+            return;
+        }
+        int last = freeCells[--size];
+        freeCells[slot] = last;
+        slots[last] = slot;
+        slots[index] = NOT_FREE;
+    }
+
+    void markFree(int index) {
+        if (slots[index] != NOT_FREE) {
+            return;
+        }
+        freeCells[size] = index;
+        slots[index] = size++;
+    }
+
+    /**
+     * Partial Fisher-Yates: moves {@code count} uniformly chosen free cells to the head of the list
+     * and copies them to {@code target}. Cells stay free until the caller occupies them.
+     */
+    void sample(int count, RandomGenerator random, int[] target) {
+        if (count > size) {
+            throw new IllegalArgumentException("cannot sample " + count + " cells, only " + size + " are free");
+        }
+        for (int i = 0; i < count; i++) {
+            swap(i, i + random.nextInt(size - i));
+            target[i] = freeCells[i];
+        }
+    }
+
+    /**
+     * {@link #sample} restricted to the free cells the filter accepts; a rejected cell is moved out of reach of
+     * the draw, so it costs one draw at most and the accepted cells stay uniformly chosen.
+     *
+     * @return the number of cells copied to {@code target}, below {@code count} if fewer cells are accepted
+     */
+    int sample(int count, RandomGenerator random, IntPredicate accepted, int[] target) {
+        int sampled = 0;
+        int candidates = size;
+        while (sampled < count && sampled < candidates) {
+            int slot = sampled + random.nextInt(candidates - sampled);
+            int cell = freeCells[slot];
+            if (accepted.test(cell)) {
+                swap(sampled, slot);
+                target[sampled++] = cell;
+            } else {
+                swap(slot, --candidates);
+            }
+        }
+        return sampled;
+    }
+
+    private void swap(int firstSlot, int secondSlot) {
+        int first = freeCells[firstSlot];
+        int second = freeCells[secondSlot];
+        freeCells[firstSlot] = second;
+        freeCells[secondSlot] = first;
+        slots[second] = firstSlot;
+        slots[first] = secondSlot;
+    }
+}
@@ -0,0 +1,92 @@
+package simulation.map;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Grass kept as one byte per cell instead of entity objects: a positive value is the nutrition of the grass
+ * growing there, 0 is bare ground and a negative value counts the turns until grazed grass grows back.
+ */
+final class GrassLayer {
+    private final byte[] cells;
+    private final byte nutrition;
+    private final byte regrowthTurns;
+    private int grassCount;
+    private int regrowingCount;
+
+    GrassLayer(int size, int nutrition, int regrowthTurns) {
+        if (nutrition < 1 || nutrition > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("grass nutrition must be within 1.." + Byte.MAX_VALUE);
+        }
+        if (regrowthTurns < 1 || regrowthTurns > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("grass regrowth turns must be within 1.." + Byte.MAX_VALUE);
+        }
+        this.cells = new byte[size];
+        this.nutrition = (byte) nutrition;
+        this.regrowthTurns = (byte) regrowthTurns;
+    }
+
+    int nutritionAt(int index) {
+        return Math.max(cells[index], 0);
+    }
+
+    /**
+     * @return {@code true} if neither grass nor grazed grass waiting to grow back is on the cell
+     */
+    boolean isBare(int index) {
+        return cells[index] == 0;
+    }
+
+    int getNutrition() {
+        return nutrition;
+    }
+
+    int getGrassCount() {
+        return grassCount;
+    }
+
+    /**
+     * @return {@code false} if grass grows or regrows on the cell already
+     */
+    boolean plant(int index) {
+        if (cells[index] != 0) {
+            return false;
+        }
+        cells[index] = nutrition;
+        grassCount++;
+        return true;
+    }
+
+    /**
+     * @return the nutrition eaten, 0 if there was no grass
+     */
+    int graze(int index) {
+        int eaten = cells[index];
+        if (eaten <= 0) {
+            return 0;
+        }
+        cells[index] = (byte) -regrowthTurns;
+        grassCount--;
+        regrowingCount++;
+        return eaten;
+    }
+
+    /**
+     * One linear pass moving every grazed cell a turn closer to regrowth.
+     *
+     * @param onRegrown receives the index of every cell where grass has grown back
+     */
+    void regrow(IntConsumer onRegrown) {
+        if (regrowingCount == 0) {
+            return;
+        }
+        byte[] cells = this.cells;
+        for (int index = 0; index < cells.length; index++) {
+            if (cells[index] < 0 && ++cells[index] == 0) {
+                cells[index] = nutrition;
+                grassCount++;
+                regrowingCount--;
+                onRegrown.accept(index);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package simulation.map;
+
+import simulation.entity.Entity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sparse backend keyed by {@link Location}, kept for comparison with {@link ArrayCellStorage}.
+ * Concurrent so that searches may read it while creatures in other map tiles move.
+ */
+final class HashCellStorage implements CellStorage {
+    private final Map<Location, Entity> entityMap = new ConcurrentHashMap<>();
+    private final int width;
+
+    HashCellStorage(int width) {
+        this.width = width;
+    }
+
+    @Override
+    public Entity get(int index) {
+        return entityMap.get(toLocation(index));
+    }
+
+    @Override
+    public void put(int index, Entity entity) {
+        entityMap.put(toLocation(index), entity);
+    }
+
+    @Override
+    public Entity remove(int index) {
+        return entityMap.remove(toLocation(index));
+    }
+
+    @Override
+    public Map<Location, Entity> snapshot() {
+        return new HashMap<>(entityMap);
+    }
+
+    private Location toLocation(int index) {
+        return new Location(index % width, index / width);
+    }
+}
@@ -5,13 +5,9 @@ import java.util.List;
 
 public record Location(int x, int y) {
 
-    private static final List<Direction> DIRECTIONS = List.of(
-            Direction.RIGHT, Direction.LEFT, Direction.UP, Direction.DOWN
-    );
-
     public List<Location> neighbourLocations() {
         List<Location> nearbyLoc = new ArrayList<>();
-        for (Direction direction : DIRECTIONS) {
+        for (Direction direction : Direction.NEIGHBOUR_ORDER) {
             nearbyLoc.add(this.shift(direction));
         }
         return nearbyLoc;
@@ -0,0 +1,13 @@
+package simulation.map;
+
+public enum MapBackend {
+    ARRAY,
+    HASH;
+
+    CellStorage createStorage(int width, int height) {
+        return switch (this) {
+            case ARRAY -> new ArrayCellStorage(width, height);
+            case HASH -> new HashCellStorage(width);
+        };
+    }
+}
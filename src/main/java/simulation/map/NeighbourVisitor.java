@@ -0,0 +1,10 @@
+package simulation.map;
+
+@FunctionalInterface
+public interface NeighbourVisitor {
+
+    /**
+     * @return {@code false} to stop visiting the remaining neighbours
+     */
+    boolean visit(Location neighbour);
+}
@@ -0,0 +1,195 @@
+package simulation.map;
+
+import simulation.entity.Entity;
+import simulation.entity.EntityType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid of square buckets per {@link EntityType}, kept current through {@link WorldMapListener}.
+ * Nearest and within-radius queries (Manhattan distance) visit buckets in rings around the origin and stop
+ * as soon as no farther ring can hold a closer match, so sparse targets are found without flooding the map.
+ */
+public class SpatialIndex implements WorldMapListener {
+    public static final int DEFAULT_BUCKET_SIZE = 8;
+
+    private final WorldMap map;
+    private final int bucketSize;
+    private final int bucketColumns;
+    private final int bucketRows;
+    private final Map<EntityType, List<List<Location>>> bucketsByType = new EnumMap<>(EntityType.class);
+
+    SpatialIndex(WorldMap map, int bucketSize) {
+        if (bucketSize < 1) {
+            throw new IllegalArgumentException("bucket size must be positive");
+        }
+        this.map = map;
+        this.bucketSize = bucketSize;
+        this.bucketColumns = Math.max(1, (map.getWidth() + bucketSize - 1) / bucketSize);
+        this.bucketRows = Math.max(1, (map.getHeight() + bucketSize - 1) / bucketSize);
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) {
+                Entity entity = map.entityAt(x, y);
+                if (entity != null) {
+                    onEntityAdded(map.locationAt(x, y), entity);
+                }
+                if (map.grassAt(x, y) > 0) {
+                    onGrassChanged(map.locationAt(x, y), 0, map.grassAt(x, y));
+                }
+            }
+        }
+        map.addListener(this);
+    }
+
+    @Override
+    public synchronized void onEntityAdded(Location location, Entity entity) {
+        addLocation(entity.getType(), location);
+    }
+
+    @Override
+    public synchronized void onEntityRemoved(Location location, Entity entity) {
+        removeLocation(entity.getType(), location);
+    }
+
+    /**
+     * Layer grass is indexed like grass entities.
+     */
+    @Override
+    public synchronized void onGrassChanged(Location location, int oldNutrition, int newNutrition) {
+        if (oldNutrition == 0 && newNutrition > 0) {
+            addLocation(EntityType.GRASS, location);
+        } else if (oldNutrition > 0 && newNutrition == 0) {
+            removeLocation(EntityType.GRASS, location);
+        }
+    }
+
+    /**
+     * @return the closest entity location of the given type no farther than {@code maxDistance},
+     * or {@code null} if there is none
+     */
+    public Location nearestWithin(Location origin, EntityType type, int maxDistance) {
+        List<Location> nearest = search(origin, type, 1, maxDistance);
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
+
+    /**
+     * @return up to {@code count} entity locations of the given type, closest first
+     */
+    public List<Location> nearest(Location origin, EntityType type, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        return search(origin, type, count, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return every entity location of the given type within {@code radius}, closest first
+     */
+    public List<Location> withinRadius(Location origin, EntityType type, int radius) {
+        return search(origin, type, Integer.MAX_VALUE, radius);
+    }
+
+    private synchronized List<Location> search(Location origin, EntityType type, int count, int maxDistance) {
+        List<Location> found = new ArrayList<>();
+        List<List<Location>> buckets = bucketsByType.get(type);
+        if (buckets == null || maxDistance < 0) {
+            return found;
+        }
+
+        int originColumn = Math.min(Math.max(origin.x(), 0) / bucketSize, bucketColumns - 1);
+        int originRow = Math.min(Math.max(origin.y(), 0) / bucketSize, bucketRows - 1);
+        int lastRing = Math.max(Math.max(originColumn, bucketColumns - 1 - originColumn),
+                Math.max(originRow, bucketRows - 1 - originRow));
+        for (int ring = 0; ring <= lastRing; ring++) {
+            for (int row = originRow - ring; row <= originRow + ring; row++) {
+                if (row < 0 || row >= bucketRows) {
+                    continue;
+                }
+                boolean edgeRow = row == originRow - ring || row == originRow + ring;
+                int step = edgeRow ? 1 : 2 * ring;
+                for (int column = originColumn - ring; column <= originColumn + ring; column += step) {
+                    if (column >= 0 && column < bucketColumns) {
+                        collect(buckets.get(row * bucketColumns + column), origin, maxDistance, found);
+                    }
+                }
+            }
+
+            long settledDistance = (long) ring * bucketSize;
+            if (settledDistance >= maxDistance || countWithin(found, origin, settledDistance) >= count) {
+                break;
+            }
+        }
+
+        found.sort(Comparator.comparingInt((Location location) -> distance(origin, location))
+                .thenComparingInt(location -> map.toIndex(location.x(), location.y())));
+        return found.size() > count ? new ArrayList<>(found.subList(0, count)) : found;
+    }
+
+    private static void collect(List<Location> bucket, Location origin, int maxDistance, List<Location> found) {
+        if (bucket == null) {
+            return;
+        }
+        for (int i = 0; i < bucket.size(); i++) {
+            Location candidate = bucket.get(i);
+            if (distance(origin, candidate) <= maxDistance) {
+                found.add(candidate);
+            }
+        }
+    }
+
+    /**
+     * Every cell outside the visited rings is farther than {@code ring * bucketSize}, so candidates within
+     * that distance are final.
+     */
+    private static int countWithin(List<Location> found, Location origin, long settledDistance) {
+        int settled = 0;
+        for (int i = 0; i < found.size(); i++) {
+            if (distance(origin, found.get(i)) <= settledDistance) {
+                settled++;
+            }
+        }
+        return settled;
+    }
+
+    private static int distance(Location origin, Location location) {
+        return Math.abs(origin.x() - location.x()) + Math.abs(origin.y() - location.y());
+    }
+
+    private void addLocation(EntityType type, Location location) {
+        List<List<Location>> buckets = bucketsByType.computeIfAbsent(type, key -> newBuckets());
+        int bucketIndex = bucketOf(location.x(), location.y());
+        List<Location> bucket = buckets.get(bucketIndex);
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            buckets.set(bucketIndex, bucket);
+        }
+        bucket.add(location);
+    }
+
+    private void removeLocation(EntityType type, Location location) {
+        List<List<Location>> buckets = bucketsByType.get(type);
+        if (buckets == null) {
+            return;
+        }
+        List<Location> bucket = buckets.get(bucketOf(location.x(), location.y()));
+        if (bucket != null) {
+            bucket.remove(location);
+        }
+    }
+
+    private int bucketOf(int x, int y) {
+        return (y / bucketSize) * bucketColumns + x / bucketSize;
+    }
+
+    /**
+     * Empty buckets stay {@code null} until a location lands in them.
+     */
+    private List<List<Location>> newBuckets() {
+        return new ArrayList<>(Collections.nCopies(bucketColumns * bucketRows, null));
+    }
+}
@@ -1,26 +1,61 @@
 package simulation.map;
 
+import simulation.entity.Creature;
 import simulation.entity.Entity;
+import simulation.entity.EntityType;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.random.RandomGenerator;
 
+/**
+ * Mutations are serialized on the map, so that creatures in distant tiles may move concurrently;
+ * reads are not locked and see either the old or the new content of a cell.
+ */
 public class WorldMap {
-    private final Map<Location, Entity> entityMap = new HashMap<>();
+    private final CellStorage cells;
+    private final FreeCellIndex freeCells;
+    private final Location[] internedLocations;
     private final int width;
     private final int height;
 
+    private final int[] populationCounts = new int[EntityType.values().length];
+    private final Map<EntityType, Set<Location>> trackedLocations = new EnumMap<>(EntityType.class);
+    private final Map<Creature, Location> creatures = new LinkedHashMap<>();
+    private final List<WorldMapListener> listeners = new ArrayList<>();
+    private SpatialIndex spatialIndex;
+    private GrassLayer grassLayer;
+
     public WorldMap(int width, int height) {
+        this(width, height, MapBackend.ARRAY);
+    }
+
+    public WorldMap(int width, int height, MapBackend backend) {
         this.width = width;
         this.height = height;
+        this.cells = backend.createStorage(width, height);
+        this.freeCells = new FreeCellIndex(width > 0 && height > 0 ? width * height : 0);
+        this.internedLocations = new Location[width > 0 && height > 0 ? width * height : 0];
     }
 
-    public boolean tryAddEntity(Location location, Entity entity) {
+    public synchronized boolean tryAddEntity(Location location, Entity entity) {
         checkEntityAndLocation(location, entity);
+        if (grassLayer != null && entity.getType() == EntityType.GRASS) {
+            throw new IllegalArgumentException("addEntity: grass grows in the grass layer of this map");
+        }
 
-        if (isCellFree(location)) {
-            entityMap.put(location, entity);
+        int index = toIndex(location.x(), location.y());
+        if (cells.get(index) == null) {
+            cells.put(index, entity);
+            freeCells.markOccupied(index);
+            onEntityAdded(locationAt(index), entity);
             return true;
         } else {
             return false;
@@ -41,27 +76,388 @@ public class WorldMap {
     }
 
     public boolean isInsideMap(Location location) {
-        return (location.x() >= 0 && location.x() < width)
-                && (location.y() >= 0 && location.y() < height);
+        return isInsideMap(location.x(), location.y());
+    }
+
+    public boolean isInsideMap(int x, int y) {
+        return (x >= 0 && x < width)
+                && (y >= 0 && y < height);
     }
 
     public boolean isCellFree(Location location) {
         return getEntity(location).isEmpty();
     }
 
+    public boolean isCellFree(int x, int y) {
+        return entityAt(x, y) == null;
+    }
+
     public Optional<Entity> getEntity(Location location) {
-        return Optional.ofNullable(entityMap.get(location));
+        return Optional.ofNullable(entityAt(location.x(), location.y()));
+    }
+
+    /**
+     * Int-coordinate counterpart of {@link #getEntity(Location)} for hot loops: no {@link Location},
+     * no {@link Optional}, {@code null} for free or out-of-map cells.
+     */
+    public Entity entityAt(int x, int y) {
+        if (!isInsideMap(x, y)) {
+            return null;
+        }
+        return cells.get(toIndex(x, y));
+    }
+
+    /**
+     * @param index cell index as returned by {@link #toIndex(int, int)}, must be inside the map
+     */
+    public Entity entityAt(int index) {
+        return cells.get(index);
+    }
+
+    /**
+     * Goal test of path finders: the entity of the cell if there is one, otherwise the grass layer
+     * (grass covered by an entity cannot be reached).
+     *
+     * @param typeMask {@link EntityType#mask()} values OR-ed together
+     */
+    public boolean holdsAnyOf(int index, int typeMask) {
+        Entity entity = cells.get(index);
+        if (entity != null) {
+            return entity.isAnyOf(typeMask);
+        }
+        return grassLayer != null && (typeMask & EntityType.GRASS.mask()) != 0 && grassLayer.nutritionAt(index) > 0;
+    }
+
+    public boolean holdsAnyOf(int x, int y, int typeMask) {
+        return isInsideMap(x, y) && holdsAnyOf(toIndex(x, y), typeMask);
+    }
+
+    public int toIndex(int x, int y) {
+        return y * width + x;
+    }
+
+    /**
+     * Canonical {@link Location} of a cell: the same instance is returned for the same coordinates.
+     */
+    public Location locationAt(int x, int y) {
+        if (!isInsideMap(x, y)) {
+            throw new IllegalArgumentException("locationAt: (" + x + ", " + y + ") - location out of bounds");
+        }
+        return locationAt(toIndex(x, y));
+    }
+
+    public Location locationAt(int index) {
+        Location location = internedLocations[index];
+        if (location == null) {
+            location = new Location(index % width, index / width);
+            internedLocations[index] = location;
+        }
+        return location;
+    }
+
+    /**
+     * Visits in-map neighbours in {@link Direction#NEIGHBOUR_ORDER} without allocating.
+     *
+     * @return {@code false} if the visitor stopped early
+     */
+    public boolean forEachNeighbour(Location location, NeighbourVisitor visitor) {
+        List<Direction> directions = Direction.NEIGHBOUR_ORDER;
+        for (int i = 0; i < directions.size(); i++) {
+            Direction direction = directions.get(i);
+            int x = location.x() + direction.getX();
+            int y = location.y() + direction.getY();
+            if (isInsideMap(x, y) && !visitor.visit(locationAt(toIndex(x, y)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves the entity of {@code from} to the free cell {@code to} in one mutation; a creature keeps its place
+     * in the iteration order of {@link #getCreatures()}.
+     *
+     * @return {@code false} if {@code from} is free or {@code to} is taken
+     */
+    public synchronized boolean moveEntity(Location from, Location to) {
+        if (from == null || to == null) {
+            throw new NullPointerException("moveEntity: locations cannot be null");
+        }
+        if (!isInsideMap(from) || !isInsideMap(to)) {
+            throw new IllegalArgumentException("moveEntity from " + from + " to " + to + " - location out of bounds");
+        }
+        int fromIndex = toIndex(from.x(), from.y());
+        int toIndex = toIndex(to.x(), to.y());
+        Entity entity = cells.get(fromIndex);
+        if (entity == null || cells.get(toIndex) != null) {
+            return false;
+        }
+        cells.remove(fromIndex);
+        freeCells.markFree(fromIndex);
+        cells.put(toIndex, entity);
+        freeCells.markOccupied(toIndex);
+        onEntityMoved(locationAt(fromIndex), locationAt(toIndex), entity);
+        return true;
     }
 
-    public void removeEntity(Location location) {
+    public synchronized void removeEntity(Location location) {
         if (location == null) {
             throw new NullPointerException("removeEntity: location cannot be null");
         }
-        entityMap.remove(location);
+        if (isInsideMap(location)) {
+            int index = toIndex(location.x(), location.y());
+            Entity removed = cells.remove(index);
+            if (removed != null) {
+                freeCells.markFree(index);
+                onEntityRemoved(locationAt(index), removed);
+            }
+        }
+    }
+
+    private void onEntityAdded(Location location, Entity entity) {
+        EntityType type = entity.getType();
+        populationCounts[type.ordinal()]++;
+        Set<Location> locations = trackedLocations.get(type);
+        if (locations != null) {
+            locations.add(location);
+        }
+        if (entity instanceof Creature creature) {
+            creatures.put(creature, location);
+        }
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onEntityAdded(location, entity);
+        }
+    }
+
+    private void onEntityRemoved(Location location, Entity entity) {
+        EntityType type = entity.getType();
+        populationCounts[type.ordinal()]--;
+        Set<Location> locations = trackedLocations.get(type);
+        if (locations != null) {
+            locations.remove(location);
+        }
+        if (entity instanceof Creature creature) {
+            creatures.remove(creature);
+        }
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onEntityRemoved(location, entity);
+        }
+    }
+
+    private void onEntityMoved(Location from, Location to, Entity entity) {
+        Set<Location> locations = trackedLocations.get(entity.getType());
+        if (locations != null) {
+            locations.remove(from);
+            locations.add(to);
+        }
+        if (entity instanceof Creature creature) {
+            creatures.put(creature, to);
+        }
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onEntityMoved(from, to, entity);
+        }
+    }
+
+    /**
+     * Switches grass from entities to a dense nutrient layer: a cell with grass stays free, a herbivore
+     * entering it grazes the grass, which grows back {@code regrowthTurns} calls of {@link #regrowGrass()} later.
+     * Must be called before any grass is placed.
+     */
+    public synchronized void attachGrassLayer(int nutrition, int regrowthTurns) {
+        if (grassLayer != null) {
+            throw new IllegalStateException("grass layer is already attached");
+        }
+        if (populationCounts[EntityType.GRASS.ordinal()] > 0) {
+            throw new IllegalStateException("grass entities are already on the map");
+        }
+        grassLayer = new GrassLayer(width * height, nutrition, regrowthTurns);
+    }
+
+    public boolean hasGrassLayer() {
+        return grassLayer != null;
+    }
+
+    /**
+     * @return nutrition of the layer grass on the cell, 0 if there is none or the map has no grass layer
+     */
+    public int grassAt(int index) {
+        return grassLayer == null ? 0 : grassLayer.nutritionAt(index);
+    }
+
+    public int grassAt(int x, int y) {
+        return isInsideMap(x, y) ? grassAt(toIndex(x, y)) : 0;
+    }
+
+    /**
+     * @return {@code false} if the cell is taken or grass already grows or regrows on it
+     */
+    public synchronized boolean plantGrass(Location location) {
+        checkGrassLayer();
+        if (!isInsideMap(location)) {
+            throw new IllegalArgumentException("plantGrass on: " + location + " - location out of bounds");
+        }
+        int index = toIndex(location.x(), location.y());
+        if (cells.get(index) != null || !grassLayer.plant(index)) {
+            return false;
+        }
+        onGrassChanged(index, 0, grassLayer.getNutrition());
+        return true;
+    }
+
+    /**
+     * @return the nutrition eaten, 0 if the cell had no grass or the map has no grass layer
+     */
+    public synchronized int grazeGrass(Location location) {
+        if (grassLayer == null) {
+            return 0;
+        }
+        if (!isInsideMap(location)) {
+            throw new IllegalArgumentException("grazeGrass on: " + location + " - location out of bounds");
+        }
+        int index = toIndex(location.x(), location.y());
+        int eaten = grassLayer.graze(index);
+        if (eaten > 0) {
+            onGrassChanged(index, eaten, 0);
+        }
+        return eaten;
+    }
+
+    /**
+     * Advances the regrowth of grazed grass by one turn in a single pass over the layer.
+     */
+    public synchronized void regrowGrass() {
+        checkGrassLayer();
+        grassLayer.regrow(index -> onGrassChanged(index, 0, grassLayer.getNutrition()));
+    }
+
+    private void checkGrassLayer() {
+        if (grassLayer == null) {
+            throw new IllegalStateException("the map has no grass layer");
+        }
+    }
+
+    private void onGrassChanged(int index, int oldNutrition, int newNutrition) {
+        Location location = locationAt(index);
+        populationCounts[EntityType.GRASS.ordinal()] = grassLayer.getGrassCount();
+        Set<Location> locations = trackedLocations.get(EntityType.GRASS);
+        if (locations != null) {
+            if (newNutrition > 0) {
+                locations.add(location);
+            } else {
+                locations.remove(location);
+            }
+        }
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onGrassChanged(location, oldNutrition, newNutrition);
+        }
+    }
+
+    public synchronized void addListener(WorldMapListener listener) {
+        if (listener == null) {
+            throw new NullPointerException("addListener: listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    public synchronized void removeListener(WorldMapListener listener) {
+        listeners.remove(listener);
+    }
+
+    public int getFreeCellCount() {
+        return freeCells.size();
+    }
+
+    /**
+     * Picks {@code count} distinct free cells uniformly at random in O(count), without scanning the map.
+     */
+    public synchronized List<Location> sampleFreeLocations(int count, RandomGenerator random) {
+        int[] sampled = new int[count];
+        freeCells.sample(count, random, sampled);
+        List<Location> sampledLocations = new ArrayList<>(count);
+        for (int index : sampled) {
+            sampledLocations.add(locationAt(index));
+        }
+        return sampledLocations;
+    }
+
+    /**
+     * Like {@link #sampleFreeLocations}, but on a map with a grass layer only cells with no layer grass either,
+     * growing or regrowing, are picked; those may be fewer than {@code count}.
+     */
+    public synchronized List<Location> sampleEmptyLocations(int count, RandomGenerator random) {
+        if (grassLayer == null) {
+            return sampleFreeLocations(count, random);
+        }
+        int[] sampled = new int[count];
+        int sampledCount = freeCells.sample(count, random, grassLayer::isBare, sampled);
+        List<Location> sampledLocations = new ArrayList<>(sampledCount);
+        for (int i = 0; i < sampledCount; i++) {
+            sampledLocations.add(locationAt(sampled[i]));
+        }
+        return sampledLocations;
+    }
+
+    /**
+     * Copy of the creature registry in a stable order (first placement), built in O(creatures).
+     */
+    public synchronized Map<Creature, Location> getCreatures() {
+        return new LinkedHashMap<>(creatures);
+    }
+
+    /**
+     * @return the current cell of the creature, or {@code null} if it is no longer on the map
+     */
+    public synchronized Location getCreatureLocation(Creature creature) {
+        return creatures.get(creature);
+    }
+
+    public int getPopulation(EntityType type) {
+        return populationCounts[type.ordinal()];
+    }
+
+    /**
+     * Starts keeping a live set of locations for the given type; costs one full scan on the first call.
+     */
+    public synchronized void trackLocations(EntityType type) {
+        if (trackedLocations.containsKey(type)) {
+            return;
+        }
+        Set<Location> typeLocations = new LinkedHashSet<>();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                Entity entity = entityAt(x, y);
+                if ((entity != null && type.matches(entity)) || (type == EntityType.GRASS && grassAt(x, y) > 0)) {
+                    typeLocations.add(locationAt(x, y));
+                }
+            }
+        }
+        trackedLocations.put(type, typeLocations);
+    }
+
+    public boolean isTracked(EntityType type) {
+        return trackedLocations.containsKey(type);
+    }
+
+    public Set<Location> getLocations(EntityType type) {
+        Set<Location> locations = trackedLocations.get(type);
+        if (locations == null) {
+            throw new IllegalStateException("locations of " + type + " are not tracked");
+        }
+        return Collections.unmodifiableSet(locations);
+    }
+
+    /**
+     * Bucketed index of every entity by type; built by one full scan on the first call, then kept current.
+     */
+    public synchronized SpatialIndex getSpatialIndex() {
+        if (spatialIndex == null) {
+            spatialIndex = new SpatialIndex(this, SpatialIndex.DEFAULT_BUCKET_SIZE);
+        }
+        return spatialIndex;
     }
 
     public Map<Location, Entity> getMapSnapshot() {
-        return new HashMap<>(entityMap);
+        return cells.snapshot();
     }
 
     public int getWidth() {
@@ -72,4 +468,3 @@ public class WorldMap {
         return height;
     }
 }
-
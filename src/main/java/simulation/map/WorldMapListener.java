@@ -0,0 +1,28 @@
+package simulation.map;
+
+import simulation.entity.Entity;
+
+/**
+ * Receives every successful mutation of a {@link WorldMap}, after the cell has been updated.
+ */
+public interface WorldMapListener {
+
+    void onEntityAdded(Location location, Entity entity);
+
+    void onEntityRemoved(Location location, Entity entity);
+
+    /**
+     * An entity went from one cell to another in a single mutation; by default seen as a removal and an addition.
+     */
+    default void onEntityMoved(Location from, Location to, Entity entity) {
+        onEntityRemoved(from, entity);
+        onEntityAdded(to, entity);
+    }
+
+    /**
+     * Grass of the {@link WorldMap#attachGrassLayer grass layer} appeared, was grazed or grew back on a cell;
+     * a nutrition of 0 means no grass.
+     */
+    default void onGrassChanged(Location location, int oldNutrition, int newNutrition) {
+    }
+}
@@ -1,11 +1,10 @@
 package simulation.path;
 
-import simulation.entity.Entity;
 import simulation.map.Location;
+import simulation.map.NeighbourVisitor;
 import simulation.map.WorldMap;
 
 import java.util.*;
-import java.util.function.Predicate;
 
 import static java.util.Collections.emptyList;
 
@@ -13,41 +12,23 @@ public class BFSPathFinder implements PathFinder {
     @Override
     public List<Location> findPath(WorldMap map,
                                    Location originalLocation,
-                                   Predicate<Entity> isGoal) {
-        Set<Location> visited = new HashSet<>();
-        Queue<Location> queue = new ArrayDeque<>();
-        Map<Location, Location> cameFrom = new HashMap<>();
-
-
-        visited.add(originalLocation);
-        queue.add(originalLocation);
-        cameFrom.put(originalLocation, null);
-
-        while (!queue.isEmpty()) {
-            Location firstElLoc = queue.poll();
-            Optional<Entity> currentEntity = map.getEntity(firstElLoc);
-
-            if ((currentEntity.isPresent() && isGoal.test(currentEntity.get()))) {
-                return reconstructPath(cameFrom, originalLocation, firstElLoc);
+                                   int goalMask) {
+        Location origin = map.locationAt(originalLocation.x(), originalLocation.y());
+        Search search = new Search(map, goalMask);
+
+        search.visited.add(origin);
+        search.queue.add(origin);
+        search.cameFrom.put(origin, null);
+
+        while (!search.queue.isEmpty()) {
+            Location firstElLoc = search.queue.poll();
+            if (map.holdsAnyOf(firstElLoc.x(), firstElLoc.y(), goalMask)) {
+                return reconstructPath(search.cameFrom, origin, firstElLoc);
             }
 
-            for (Location neighbourLocation : generateNeighboursInsideMap(firstElLoc, map)) {
-                if (visited.contains(neighbourLocation)) {
-                    continue;
-                }
-
-                Optional<Entity> neighbour = map.getEntity(neighbourLocation);
-                if (neighbour.isPresent() && isGoal.test(neighbour.get())) {
-                    cameFrom.put(neighbourLocation, firstElLoc);
-                    return reconstructPath(cameFrom, originalLocation, neighbourLocation);
-                }
-
-                if (neighbour.isPresent()) {
-                    continue;
-                }
-                visited.add(neighbourLocation);
-                queue.add(neighbourLocation);
-                cameFrom.put(neighbourLocation, firstElLoc);
+            search.current = firstElLoc;
+            if (!map.forEachNeighbour(firstElLoc, search)) {
+                return reconstructPath(search.cameFrom, origin, search.found);
             }
         }
 
@@ -84,15 +65,43 @@ public class BFSPathFinder implements PathFinder {
         return !currentPath.get(currentPath.size() - 1).equals(initialLocation);
     }
 
-    private List<Location> generateNeighboursInsideMap(Location initialLocation, WorldMap map) {
-        List<Location> insideMapLocations = new ArrayList<>();
-        for (Location nearby : initialLocation.neighbourLocations()) {
-            if (map.isInsideMap(nearby)) {
-                insideMapLocations.add(nearby);
+    /**
+     * Per-call search state; doubles as the neighbour visitor so expanding a node allocates nothing.
+     */
+    private static final class Search implements NeighbourVisitor {
+        private final WorldMap map;
+        private final int goalMask;
+        private final Set<Location> visited = new HashSet<>();
+        private final Queue<Location> queue = new ArrayDeque<>();
+        private final Map<Location, Location> cameFrom = new HashMap<>();
+
+        private Location current;
+        private Location found;
+
+        private Search(WorldMap map, int goalMask) {
+            this.map = map;
+            this.goalMask = goalMask;
+        }
+
+        @Override
+        public boolean visit(Location neighbourLocation) {
+            if (visited.contains(neighbourLocation)) {
+                return true;
             }
+
+            if (map.holdsAnyOf(neighbourLocation.x(), neighbourLocation.y(), goalMask)) {
+                cameFrom.put(neighbourLocation, current);
+                found = neighbourLocation;
+                return false;
+            }
+
+            if (!map.isCellFree(neighbourLocation)) {
+                return true;
+            }
+            visited.add(neighbourLocation);
+            queue.add(neighbourLocation);
+            cameFrom.put(neighbourLocation, current);
+            return true;
         }
-        return insideMapLocations;
     }
 }
-
-
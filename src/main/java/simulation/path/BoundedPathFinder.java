@@ -0,0 +1,127 @@
+package simulation.path;
+
+import simulation.entity.EntityType;
+import simulation.map.Direction;
+import simulation.map.Location;
+import simulation.map.WorldMap;
+
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Search with a bounded worst case: cells farther than {@link SearchLimits#perceptionRadius()} from the
+ * origin are never looked at, and a search gives up after {@link SearchLimits#maxExpandedNodes()} expansions.
+ * Typed queries pick the nearest known target within the radius and run A* with a Manhattan heuristic
+ * towards it; untyped queries, or typed ones whose target turns out to be unreachable, run a bounded BFS.
+ */
+public class BoundedPathFinder implements PathFinder {
+    private final SearchLimits limits;
+
+    public BoundedPathFinder(SearchLimits limits) {
+        if (limits == null) {
+            throw new IllegalArgumentException("search limits cannot be null");
+        }
+        this.limits = limits;
+    }
+
+    @Override
+    public List<Location> findPath(WorldMap map,
+                                   Location originalLocation,
+                                   int goalMask) {
+        int width = map.getWidth();
+        SearchScratch scratch = SearchScratch.forCurrentThread();
+        int stamp = scratch.prepare(width * map.getHeight());
+        int[] visited = scratch.visited;
+        int[] parent = scratch.parent;
+        int[] queue = scratch.queue;
+
+        int origin = map.toIndex(originalLocation.x(), originalLocation.y());
+        visited[origin] = stamp;
+        parent[origin] = IndexedBFSPathFinder.NO_PARENT;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = origin;
+        int expanded = 0;
+
+        List<Direction> directions = Direction.NEIGHBOUR_ORDER;
+        while (head < tail) {
+            int current = queue[head++];
+            if (++expanded > limits.maxExpandedNodes()) {
+                return emptyList();
+            }
+
+            if (map.holdsAnyOf(current, goalMask)) {
+                return IndexedBFSPathFinder.reconstructPath(map, parent, current);
+            }
+
+            int x = current % width;
+            int y = current / width;
+            for (int i = 0; i < directions.size(); i++) {
+                Direction direction = directions.get(i);
+                int neighbourX = x + direction.getX();
+                int neighbourY = y + direction.getY();
+                if (!map.isInsideMap(neighbourX, neighbourY) || !isPerceived(originalLocation, neighbourX, neighbourY)) {
+                    continue;
+                }
+                int neighbour = current + direction.getY() * width + direction.getX();
+                if (visited[neighbour] == stamp) {
+                    continue;
+                }
+
+                if (map.holdsAnyOf(neighbour, goalMask)) {
+                    parent[neighbour] = current;
+                    return IndexedBFSPathFinder.reconstructPath(map, parent, neighbour);
+                }
+                if (map.entityAt(neighbour) != null) {
+                    continue;
+                }
+                visited[neighbour] = stamp;
+                parent[neighbour] = current;
+                queue[tail++] = neighbour;
+            }
+        }
+
+        return emptyList();
+    }
+
+    @Override
+    public List<Location> findPath(WorldMap map,
+                                   Location originalLocation,
+                                   EntityType goalType) {
+        Location target = nearestKnownTarget(map, originalLocation, goalType);
+        if (target != null) {
+            List<Location> path = findPathTo(map, originalLocation, target);
+            if (!path.isEmpty()) {
+                return path;
+            }
+        }
+        return findPath(map, originalLocation, goalType.mask());
+    }
+
+    /**
+     * A* towards a known cell. Intermediate cells must be free, the target itself may be occupied.
+     *
+     * @return the path including origin and target, or an empty list if the target is outside the
+     * perception radius, unreachable, or the expansion budget ran out
+     */
+    public List<Location> findPathTo(WorldMap map, Location originalLocation, Location targetLocation) {
+        if (manhattan(originalLocation, targetLocation.x(), targetLocation.y()) > limits.perceptionRadius()) {
+            return emptyList();
+        }
+        return GridAStar.findPath(map, originalLocation, targetLocation,
+                (x, y) -> isPerceived(originalLocation, x, y), limits.maxExpandedNodes());
+    }
+
+    private Location nearestKnownTarget(WorldMap map, Location originalLocation, EntityType goalType) {
+        return map.getSpatialIndex().nearestWithin(originalLocation, goalType, limits.perceptionRadius());
+    }
+
+    private boolean isPerceived(Location originalLocation, int x, int y) {
+        return manhattan(originalLocation, x, y) <= limits.perceptionRadius();
+    }
+
+    private static int manhattan(Location location, int x, int y) {
+        return GridAStar.manhattan(x, y, location);
+    }
+}
@@ -0,0 +1,420 @@
+package simulation.path;
+
+import simulation.entity.Entity;
+import simulation.map.Direction;
+import simulation.map.Location;
+import simulation.map.WorldMap;
+import simulation.map.WorldMapListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Abstract graph of HPA*: the map is cut into square clusters, every maximal run of passable cells along
+ * a cluster border becomes one transition (a pair of cells facing each other), and the entrances of a cluster
+ * are connected by their distances inside the cluster. Only rocks and trees are taken into account - they
+ * never move, so the graph is built once; adding or removing one marks its cluster dirty and the affected
+ * borders are rebuilt on the next query.
+ */
+final class ClusterGraph implements WorldMapListener {
+    private static final int NONE = -1;
+
+    private final WorldMap map;
+    private final int clusterSize;
+    private final int clustersX;
+    private final int clustersY;
+
+    private final int[][] eastTransitions;
+    private final int[][] southTransitions;
+    private final int[][] clusterNodes;
+    private final int[][][] nodePartners;
+    private final int[][][] intraDistances;
+    private final int[] nodeSlots;
+
+    private final boolean[] dirty;
+    private boolean anyDirty;
+
+    private final int[] localDistances;
+    private final int[] localQueue;
+
+    ClusterGraph(WorldMap map, int clusterSize) {
+        this.map = map;
+        this.clusterSize = clusterSize;
+        this.clustersX = (map.getWidth() + clusterSize - 1) / clusterSize;
+        this.clustersY = (map.getHeight() + clusterSize - 1) / clusterSize;
+        int clusterCount = clustersX * clustersY;
+        this.eastTransitions = new int[clusterCount][];
+        this.southTransitions = new int[clusterCount][];
+        this.clusterNodes = new int[clusterCount][];
+        this.nodePartners = new int[clusterCount][][];
+        this.intraDistances = new int[clusterCount][][];
+        this.nodeSlots = new int[map.getWidth() * map.getHeight()];
+        this.dirty = new boolean[clusterCount];
+        this.localDistances = new int[clusterSize * clusterSize];
+        this.localQueue = new int[clusterSize * clusterSize];
+
+        Arrays.fill(nodeSlots, NONE);
+        Arrays.fill(dirty, true);
+        anyDirty = true;
+        refresh();
+        map.addListener(this);
+    }
+
+    void detach() {
+        map.removeListener(this);
+    }
+
+    @Override
+    public void onEntityAdded(Location location, Entity entity) {
+        if (isStaticObstacle(entity)) {
+            markDirty(location);
+        }
+    }
+
+    @Override
+    public void onEntityRemoved(Location location, Entity entity) {
+        if (isStaticObstacle(entity)) {
+            markDirty(location);
+        }
+    }
+
+    private synchronized void markDirty(Location location) {
+        dirty[clusterOf(location.x(), location.y())] = true;
+        anyDirty = true;
+    }
+
+    /**
+     * Abstract A* from {@code origin} to {@code target} over the entrance graph.
+     *
+     * @return waypoint cells from origin to target, consecutive ones lying in the same or in adjacent
+     * clusters, or {@code null} if the target is unreachable through static terrain
+     */
+    synchronized List<Integer> findWaypoints(int origin, int target) {
+        refresh();
+        int originCluster = clusterOf(origin);
+        int targetCluster = clusterOf(target);
+        Map<Integer, Integer> fromOrigin = localDistancesToNodes(origin);
+        Map<Integer, Integer> toTarget = localDistancesToNodes(target);
+        int direct = originCluster == targetCluster ? localDistance(origin, target) : NONE;
+
+        Map<Integer, Integer> costs = new HashMap<>();
+        Map<Integer, Integer> parents = new HashMap<>();
+        Set<Integer> closed = new HashSet<>();
+        PriorityQueue<long[]> open = new PriorityQueue<>((first, second) -> Long.compare(first[0], second[0]));
+        costs.put(origin, 0);
+        open.add(new long[]{heuristic(origin, target), origin});
+
+        while (!open.isEmpty()) {
+            int current = (int) open.poll()[1];
+            if (!closed.add(current)) {
+                continue;
+            }
+            if (current == target) {
+                return waypoints(parents, origin, target);
+            }
+            int currentCost = costs.get(current);
+
+            if (current == origin) {
+                for (Map.Entry<Integer, Integer> entry : fromOrigin.entrySet()) {
+                    relax(current, entry.getKey(), currentCost + entry.getValue(), target, costs, parents, open);
+                }
+                if (direct != NONE) {
+                    relax(current, target, currentCost + direct, target, costs, parents, open);
+                }
+            }
+            int cluster = clusterOf(current);
+            int slot = nodeSlots[current];
+            if (slot != NONE && current != target) {
+                int[] nodes = clusterNodes[cluster];
+                int[] distances = intraDistances[cluster][slot];
+                for (int other = 0; other < nodes.length; other++) {
+                    if (other != slot && distances[other] != NONE) {
+                        relax(current, nodes[other], currentCost + distances[other], target, costs, parents, open);
+                    }
+                }
+                for (int partner : nodePartners[cluster][slot]) {
+                    relax(current, partner, currentCost + 1, target, costs, parents, open);
+                }
+                Integer toTargetCost = toTarget.get(current);
+                if (cluster == targetCluster && toTargetCost != null) {
+                    relax(current, target, currentCost + toTargetCost, target, costs, parents, open);
+                }
+            }
+        }
+        return null;
+    }
+
+    private void relax(int from,
+                       int to,
+                       int cost,
+                       int target,
+                       Map<Integer, Integer> costs,
+                       Map<Integer, Integer> parents,
+                       PriorityQueue<long[]> open) {
+        Integer known = costs.get(to);
+        if (known != null && known <= cost) {
+            return;
+        }
+        costs.put(to, cost);
+        parents.put(to, from);
+        open.add(new long[]{cost + heuristic(to, target), to});
+    }
+
+    private List<Integer> waypoints(Map<Integer, Integer> parents, int origin, int target) {
+        List<Integer> waypoints = new ArrayList<>();
+        for (int current = target; current != origin; current = parents.get(current)) {
+            waypoints.add(current);
+        }
+        waypoints.add(origin);
+        Collections.reverse(waypoints);
+        return waypoints;
+    }
+
+    private int heuristic(int from, int to) {
+        int width = map.getWidth();
+        return Math.abs(from % width - to % width) + Math.abs(from / width - to / width);
+    }
+
+    /**
+     * Bounds of the rectangle covering the clusters of both cells: {minX, minY, maxX, maxY}.
+     */
+    int[] segmentBounds(int from, int to) {
+        int width = map.getWidth();
+        int firstCluster = clusterOf(from);
+        int secondCluster = clusterOf(to);
+        int minX = Math.min(firstCluster % clustersX, secondCluster % clustersX) * clusterSize;
+        int minY = Math.min(firstCluster / clustersX, secondCluster / clustersX) * clusterSize;
+        int maxX = Math.min(width, (Math.max(firstCluster % clustersX, secondCluster % clustersX) + 1) * clusterSize) - 1;
+        int maxY = Math.min(map.getHeight(),
+                (Math.max(firstCluster / clustersX, secondCluster / clustersX) + 1) * clusterSize) - 1;
+        return new int[]{minX, minY, maxX, maxY};
+    }
+
+    private void refresh() {
+        if (!anyDirty) {
+            return;
+        }
+        Set<Integer> regather = new HashSet<>();
+        for (int cluster = 0; cluster < dirty.length; cluster++) {
+            if (!dirty[cluster]) {
+                continue;
+            }
+            int clusterX = cluster % clustersX;
+            int clusterY = cluster / clustersX;
+            rebuildEastBorder(cluster);
+            rebuildSouthBorder(cluster);
+            regather.add(cluster);
+            if (clusterX > 0) {
+                rebuildEastBorder(cluster - 1);
+                regather.add(cluster - 1);
+            }
+            if (clusterY > 0) {
+                rebuildSouthBorder(cluster - clustersX);
+                regather.add(cluster - clustersX);
+            }
+            if (clusterX + 1 < clustersX) {
+                regather.add(cluster + 1);
+            }
+            if (clusterY + 1 < clustersY) {
+                regather.add(cluster + clustersX);
+            }
+        }
+        for (int cluster : regather) {
+            gatherNodes(cluster);
+        }
+        Arrays.fill(dirty, false);
+        anyDirty = false;
+    }
+
+    private void rebuildEastBorder(int cluster) {
+        int clusterX = cluster % clustersX;
+        if (clusterX + 1 >= clustersX) {
+            eastTransitions[cluster] = new int[0];
+            return;
+        }
+        int x = (clusterX + 1) * clusterSize - 1;
+        int startY = (cluster / clustersX) * clusterSize;
+        int endY = Math.min(map.getHeight(), startY + clusterSize);
+        eastTransitions[cluster] = scanBorder(x, startY, endY, true);
+    }
+
+    private void rebuildSouthBorder(int cluster) {
+        int clusterY = cluster / clustersX;
+        if (clusterY + 1 >= clustersY) {
+            southTransitions[cluster] = new int[0];
+            return;
+        }
+        int y = (clusterY + 1) * clusterSize - 1;
+        int startX = (cluster % clustersX) * clusterSize;
+        int endX = Math.min(map.getWidth(), startX + clusterSize);
+        southTransitions[cluster] = scanBorder(y, startX, endX, false);
+    }
+
+    /**
+     * Finds maximal runs of open cell pairs along one border and puts a transition in the middle of each.
+     *
+     * @return flattened pairs {cell inside this cluster, facing cell in the neighbour}
+     */
+    private int[] scanBorder(int fixed, int start, int end, boolean vertical) {
+        List<Integer> pairs = new ArrayList<>();
+        int runStart = NONE;
+        for (int position = start; position <= end; position++) {
+            boolean open = position < end && isOpenPair(fixed, position, vertical);
+            if (open && runStart == NONE) {
+                runStart = position;
+            } else if (!open && runStart != NONE) {
+                int middle = (runStart + position - 1) / 2;
+                pairs.add(borderCell(fixed, middle, vertical));
+                pairs.add(borderCell(fixed + 1, middle, vertical));
+                runStart = NONE;
+            }
+        }
+        return pairs.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private boolean isOpenPair(int fixed, int position, boolean vertical) {
+        return !isStaticObstacle(borderCell(fixed, position, vertical))
+                && !isStaticObstacle(borderCell(fixed + 1, position, vertical));
+    }
+
+    private int borderCell(int fixed, int position, boolean vertical) {
+        return vertical ? map.toIndex(fixed, position) : map.toIndex(position, fixed);
+    }
+
+    private void gatherNodes(int cluster) {
+        if (clusterNodes[cluster] != null) {
+            for (int node : clusterNodes[cluster]) {
+                nodeSlots[node] = NONE;
+            }
+        }
+        Map<Integer, List<Integer>> partners = new LinkedHashMap<>();
+        addPairs(partners, eastTransitions[cluster], 0);
+        addPairs(partners, southTransitions[cluster], 0);
+        int clusterX = cluster % clustersX;
+        int clusterY = cluster / clustersX;
+        if (clusterX > 0) {
+            addPairs(partners, eastTransitions[cluster - 1], 1);
+        }
+        if (clusterY > 0) {
+            addPairs(partners, southTransitions[cluster - clustersX], 1);
+        }
+
+        int[] nodes = new int[partners.size()];
+        int[][] nodePartnerCells = new int[partners.size()][];
+        int slot = 0;
+        for (Map.Entry<Integer, List<Integer>> entry : partners.entrySet()) {
+            nodes[slot] = entry.getKey();
+            nodePartnerCells[slot] = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+            nodeSlots[entry.getKey()] = slot;
+            slot++;
+        }
+        clusterNodes[cluster] = nodes;
+        nodePartners[cluster] = nodePartnerCells;
+
+        int[][] distances = new int[nodes.length][];
+        for (int from = 0; from < nodes.length; from++) {
+            floodCluster(nodes[from]);
+            distances[from] = new int[nodes.length];
+            for (int to = 0; to < nodes.length; to++) {
+                distances[from][to] = localDistances[localIndex(nodes[to])];
+            }
+        }
+        intraDistances[cluster] = distances;
+    }
+
+    private void addPairs(Map<Integer, List<Integer>> partners, int[] pairs, int ownSide) {
+        if (pairs == null) {
+            return;
+        }
+        for (int i = 0; i < pairs.length; i += 2) {
+            int own = pairs[i + ownSide];
+            int other = pairs[i + 1 - ownSide];
+            partners.computeIfAbsent(own, key -> new ArrayList<>()).add(other);
+        }
+    }
+
+    private Map<Integer, Integer> localDistancesToNodes(int cell) {
+        floodCluster(cell);
+        Map<Integer, Integer> result = new HashMap<>();
+        for (int node : clusterNodes[clusterOf(cell)]) {
+            int distance = localDistances[localIndex(node)];
+            if (distance != NONE) {
+                result.put(node, distance);
+            }
+        }
+        return result;
+    }
+
+    private int localDistance(int from, int to) {
+        floodCluster(from);
+        return localDistances[localIndex(to)];
+    }
+
+    /**
+     * BFS inside the cluster of {@code source} over cells free of rocks and trees.
+     */
+    private void floodCluster(int source) {
+        int width = map.getWidth();
+        int cluster = clusterOf(source);
+        int minX = (cluster % clustersX) * clusterSize;
+        int minY = (cluster / clustersX) * clusterSize;
+        int maxX = Math.min(width, minX + clusterSize) - 1;
+        int maxY = Math.min(map.getHeight(), minY + clusterSize) - 1;
+        Arrays.fill(localDistances, NONE);
+
+        int head = 0;
+        int tail = 0;
+        localDistances[localIndex(source)] = 0;
+        localQueue[tail++] = source;
+        List<Direction> directions = Direction.NEIGHBOUR_ORDER;
+        while (head < tail) {
+            int current = localQueue[head++];
+            int x = current % width;
+            int y = current / width;
+            for (int i = 0; i < directions.size(); i++) {
+                Direction direction = directions.get(i);
+                int neighbourX = x + direction.getX();
+                int neighbourY = y + direction.getY();
+                if (neighbourX < minX || neighbourX > maxX || neighbourY < minY || neighbourY > maxY) {
+                    continue;
+                }
+                int neighbour = map.toIndex(neighbourX, neighbourY);
+                if (localDistances[localIndex(neighbour)] != NONE || isStaticObstacle(neighbour)) {
+                    continue;
+                }
+                localDistances[localIndex(neighbour)] = localDistances[localIndex(current)] + 1;
+                localQueue[tail++] = neighbour;
+            }
+        }
+    }
+
+    private int localIndex(int cell) {
+        int width = map.getWidth();
+        return (cell / width % clusterSize) * clusterSize + cell % width % clusterSize;
+    }
+
+    private int clusterOf(int cell) {
+        int width = map.getWidth();
+        return clusterOf(cell % width, cell / width);
+    }
+
+    private int clusterOf(int x, int y) {
+        return (y / clusterSize) * clustersX + x / clusterSize;
+    }
+
+    private boolean isStaticObstacle(int cell) {
+        return isStaticObstacle(map.entityAt(cell));
+    }
+
+    private static boolean isStaticObstacle(Entity entity) {
+        return entity != null && entity.getType().isImmovable();
+    }
+}
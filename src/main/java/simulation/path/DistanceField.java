@@ -0,0 +1,157 @@
+package simulation.path;
+
+import simulation.entity.EntityType;
+import simulation.map.Direction;
+import simulation.map.Location;
+import simulation.map.WorldMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Distance from every free cell to the nearest entity of one type, built by a multi-source BFS
+ * seeded from all goal cells. Occupied non-goal cells are walls and stay {@link #UNREACHABLE}.
+ * Rebuilds, repairs and descents lock the field, so creatures moved in parallel never see it half-updated.
+ */
+class DistanceField {
+    static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    protected final WorldMap map;
+    protected final EntityType goalType;
+    protected final int[] distances;
+    protected final int[] queue;
+
+    DistanceField(WorldMap map, EntityType goalType) {
+        this.map = map;
+        this.goalType = goalType;
+        this.distances = new int[map.getWidth() * map.getHeight()];
+        this.queue = new int[distances.length];
+    }
+
+    synchronized void rebuild() {
+        Arrays.fill(distances, UNREACHABLE);
+        int tail = 0;
+        for (int index = 0; index < distances.length; index++) {
+            if (isGoal(index)) {
+                distances[index] = 0;
+                queue[tail++] = index;
+            }
+        }
+        spread(0, tail);
+    }
+
+    /**
+     * Plain BFS relaxation from {@code queue[head..tail)}; every cell is queued at most once per call.
+     */
+    protected void spread(int head, int tail) {
+        int width = map.getWidth();
+        List<Direction> directions = Direction.NEIGHBOUR_ORDER;
+        while (head < tail) {
+            int current = queue[head++];
+            int x = current % width;
+            int y = current / width;
+            for (int i = 0; i < directions.size(); i++) {
+                Direction direction = directions.get(i);
+                if (!map.isInsideMap(x + direction.getX(), y + direction.getY())) {
+                    continue;
+                }
+                int neighbour = current + direction.getY() * width + direction.getX();
+                if (distances[neighbour] != UNREACHABLE || map.entityAt(neighbour) != null) {
+                    continue;
+                }
+                distances[neighbour] = distances[current] + 1;
+                queue[tail++] = neighbour;
+            }
+        }
+    }
+
+    protected boolean isGoal(int index) {
+        return map.holdsAnyOf(index, goalType.mask());
+    }
+
+    /**
+     * One step down the gradient, for queries repeated on every step of a creature: only the step is checked
+     * against the current map, the rest of the way is checked again by the following queries.
+     *
+     * @return the origin alone if it holds a goal, the origin and the cell to step onto, an empty list if no
+     * goal is reachable, or {@code null} if the field disagrees with the current map (the cell is taken or
+     * the goal it leads to is gone) and the caller should search directly
+     */
+    synchronized List<Location> firstStep(Location origin) {
+        int current = map.toIndex(origin.x(), origin.y());
+        if (isGoal(current)) {
+            return List.of(origin);
+        }
+        int bound = distances[current];
+        int next = lowestNeighbour(current, bound);
+        if (next < 0) {
+            return bound == UNREACHABLE ? List.of() : null;
+        }
+        if (distances[next] == 0 ? !isGoal(next) : map.entityAt(next) != null) {
+            return null;
+        }
+        return List.of(origin, map.locationAt(next));
+    }
+
+    /**
+     * Follows the gradient from {@code origin} down to a goal; meant for seeding a batch from a current field,
+     * the paths then being cached and followed by the creatures.
+     *
+     * @return the path including origin and goal, an empty list if no goal is reachable,
+     * or {@code null} if the field disagrees with the current map (a cell on the way is taken
+     * or the goal is gone) and the caller should search directly
+     */
+    synchronized List<Location> descend(Location origin) {
+        int current = map.toIndex(origin.x(), origin.y());
+        List<Location> path = new ArrayList<>();
+        path.add(map.locationAt(current));
+        if (isGoal(current)) {
+            return path;
+        }
+
+        int next = lowestNeighbour(current, UNREACHABLE);
+        if (next < 0) {
+            return List.of();
+        }
+        while (true) {
+            path.add(map.locationAt(next));
+            if (distances[next] == 0) {
+                return isGoal(next) ? path : null;
+            }
+            if (map.entityAt(next) != null) {
+                return null;
+            }
+            current = next;
+            next = lowestNeighbour(current, distances[current]);
+            if (next < 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * @return the first neighbour (in {@link Direction#NEIGHBOUR_ORDER}) with the smallest distance
+     * strictly below {@code bound}, or -1
+     */
+    private int lowestNeighbour(int index, int bound) {
+        int width = map.getWidth();
+        int x = index % width;
+        int y = index / width;
+        int best = -1;
+        int bestDistance = bound;
+        List<Direction> directions = Direction.NEIGHBOUR_ORDER;
+        for (int i = 0; i < directions.size(); i++) {
+            Direction direction = directions.get(i);
+            if (!map.isInsideMap(x + direction.getX(), y + direction.getY())) {
+                continue;
+            }
+            int neighbour = index + direction.getY() * width + direction.getX();
+            if (distances[neighbour] < bestDistance) {
+                best = neighbour;
+                bestDistance = distances[neighbour];
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,83 @@
+package simulation.path;
+
+import simulation.entity.EntityType;
+import simulation.map.Location;
+import simulation.map.WorldMap;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds one distance field per goal type per turn and lets every creature descend it a step per query,
+ * instead of running a full BFS per creature. The field is a snapshot of the turn start: when creatures moved
+ * in between and the gradient no longer matches the map, the query falls back to {@link IndexedBFSPathFinder}.
+ */
+public class DistanceFieldPathFinder implements PathFinder {
+    private final PathFinder fallback = new IndexedBFSPathFinder();
+    private final Map<EntityType, DistanceField> fields = new EnumMap<>(EntityType.class);
+    private final Set<EntityType> staleFields = EnumSet.noneOf(EntityType.class);
+    private WorldMap fieldsMap;
+
+    @Override
+    public List<Location> findPath(WorldMap map,
+                                   Location originalLocation,
+                                   int goalMask) {
+        return fallback.findPath(map, originalLocation, goalMask);
+    }
+
+    @Override
+    public List<Location> findPath(WorldMap map,
+                                   Location originalLocation,
+                                   EntityType goalType) {
+        List<Location> path = fieldFor(map, goalType).firstStep(originalLocation);
+        if (path == null) {
+            return fallback.findPath(map, originalLocation, goalType.mask());
+        }
+        return path;
+    }
+
+    @Override
+    public Map<Location, List<Location>> findPaths(WorldMap map,
+                                                   Collection<Location> origins,
+                                                   EntityType goalType) {
+        DistanceField field = fieldFor(map, goalType);
+        Map<Location, List<Location>> paths = new LinkedHashMap<>();
+        for (Location origin : origins) {
+            List<Location> path = field.descend(origin);
+            paths.put(origin, path != null ? path : fallback.findPath(map, origin, goalType.mask()));
+        }
+        return paths;
+    }
+
+    @Override
+    public boolean supportsBatch() {
+        return true;
+    }
+
+    @Override
+    public synchronized void onTurnStart(WorldMap map) {
+        staleFields.addAll(fields.keySet());
+    }
+
+    private synchronized DistanceField fieldFor(WorldMap map, EntityType goalType) {
+        if (fieldsMap != map) {
+            fields.clear();
+            staleFields.clear();
+            fieldsMap = map;
+        }
+        DistanceField field = fields.get(goalType);
+        if (field == null) {
+            field = new DistanceField(map, goalType);
+            field.rebuild();
+            fields.put(goalType, field);
+        } else if (staleFields.remove(goalType)) {
+            field.rebuild();
+        }
+        return field;
+    }
+}
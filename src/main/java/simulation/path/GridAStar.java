@@ -0,0 +1,95 @@
+package simulation.path;
+
+import simulation.map.Direction;
+import simulation.map.Location;
+import simulation.map.WorldMap;
+
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * A* with a Manhattan heuristic towards one known cell, restricted to the cells a {@link CellFilter} allows.
+ * Intermediate cells must be free, the target itself may be occupied.
+ */
+final class GridAStar {
+
+    @FunctionalInterface
+    interface CellFilter {
+        boolean allows(int x, int y);
+    }
+
+    private GridAStar() {
+    }
+
+    /**
+     * @return the path including origin and target, or an empty list if the target is unreachable inside
+     * the filter or more than {@code maxExpandedNodes} nodes had to be expanded
+     */
+    static List<Location> findPath(WorldMap map,
+                                   Location originalLocation,
+                                   Location targetLocation,
+                                   CellFilter filter,
+                                   int maxExpandedNodes) {
+        int width = map.getWidth();
+        SearchScratch scratch = SearchScratch.forCurrentThread();
+        int stamp = scratch.prepare(width * map.getHeight());
+        int closed = -stamp;
+        int[] state = scratch.visited;
+        int[] parent = scratch.parent;
+        int[] cost = scratch.cost;
+
+        int origin = map.toIndex(originalLocation.x(), originalLocation.y());
+        int target = map.toIndex(targetLocation.x(), targetLocation.y());
+        state[origin] = stamp;
+        cost[origin] = 0;
+        parent[origin] = IndexedBFSPathFinder.NO_PARENT;
+        int heapSize = scratch.pushHeap(0, manhattan(originalLocation.x(), originalLocation.y(), targetLocation), origin);
+        int expanded = 0;
+
+        List<Direction> directions = Direction.NEIGHBOUR_ORDER;
+        while (heapSize > 0) {
+            int current = scratch.peekHeapCell();
+            heapSize = scratch.popHeap(heapSize);
+            if (state[current] == closed) {
+                continue;
+            }
+            state[current] = closed;
+            if (current == target) {
+                return IndexedBFSPathFinder.reconstructPath(map, parent, current);
+            }
+            if (++expanded > maxExpandedNodes) {
+                return emptyList();
+            }
+
+            int x = current % width;
+            int y = current / width;
+            for (int i = 0; i < directions.size(); i++) {
+                Direction direction = directions.get(i);
+                int neighbourX = x + direction.getX();
+                int neighbourY = y + direction.getY();
+                if (!map.isInsideMap(neighbourX, neighbourY) || !filter.allows(neighbourX, neighbourY)) {
+                    continue;
+                }
+                int neighbour = current + direction.getY() * width + direction.getX();
+                if (state[neighbour] == closed || (neighbour != target && map.entityAt(neighbour) != null)) {
+                    continue;
+                }
+                int neighbourCost = cost[current] + 1;
+                if (state[neighbour] == stamp && cost[neighbour] <= neighbourCost) {
+                    continue;
+                }
+                state[neighbour] = stamp;
+                cost[neighbour] = neighbourCost;
+                parent[neighbour] = current;
+                heapSize = scratch.pushHeap(heapSize,
+                        neighbourCost + manhattan(neighbourX, neighbourY, targetLocation), neighbour);
+            }
+        }
+        return emptyList();
+    }
+
+    static int manhattan(int x, int y, Location location) {
+        return Math.abs(location.x() - x) + Math.abs(location.y() - y);
+    }
+}
@@ -0,0 +1,116 @@
+package simulation.path;
+
+import simulation.entity.EntityType;
+import simulation.map.Location;
+import simulation.map.WorldMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * HPA*: plans over the {@link ClusterGraph} of static terrain, then refines each abstract hop with a local A*
+ * confined to the one or two clusters it crosses, so long-range queries never flood the whole map.
+ * Refinement respects the current occupancy; if a creature blocks a local segment, or the query is untyped,
+ * the search falls back to {@link IndexedBFSPathFinder}.
+ */
+public class HierarchicalPathFinder implements PathFinder {
+    public static final int DEFAULT_CLUSTER_SIZE = 10;
+
+    private final int clusterSize;
+    private final PathFinder fallback = new IndexedBFSPathFinder();
+    private ClusterGraph graph;
+    private WorldMap graphMap;
+
+    public HierarchicalPathFinder() {
+        this(DEFAULT_CLUSTER_SIZE);
+    }
+
+    public HierarchicalPathFinder(int clusterSize) {
+        if (clusterSize < 2) {
+            throw new IllegalArgumentException("cluster size must be at least 2");
+        }
+        this.clusterSize = clusterSize;
+    }
+
+    @Override
+    public List<Location> findPath(WorldMap map,
+                                   Location originalLocation,
+                                   int goalMask) {
+        return fallback.findPath(map, originalLocation, goalMask);
+    }
+
+    @Override
+    public List<Location> findPath(WorldMap map,
+                                   Location originalLocation,
+                                   EntityType goalType) {
+        Location target = nearestKnownTarget(map, originalLocation, goalType);
+        if (target == null) {
+            return emptyList();
+        }
+        List<Location> path = findPathTo(map, originalLocation, target);
+        if (path.isEmpty()) {
+            return fallback.findPath(map, originalLocation, goalType.mask());
+        }
+        return path;
+    }
+
+    /**
+     * @return the path including origin and target, or an empty list if static terrain separates them or
+     * a local segment is blocked right now
+     */
+    public List<Location> findPathTo(WorldMap map, Location originalLocation, Location targetLocation) {
+        int origin = map.toIndex(originalLocation.x(), originalLocation.y());
+        int target = map.toIndex(targetLocation.x(), targetLocation.y());
+        List<Integer> waypoints;
+        int[][] bounds;
+        synchronized (this) {
+            ClusterGraph clusterGraph = graphFor(map);
+            waypoints = clusterGraph.findWaypoints(origin, target);
+            if (waypoints == null) {
+                return emptyList();
+            }
+            bounds = new int[waypoints.size() - 1][];
+            for (int i = 0; i + 1 < waypoints.size(); i++) {
+                bounds[i] = clusterGraph.segmentBounds(waypoints.get(i), waypoints.get(i + 1));
+            }
+        }
+
+        List<Location> path = new ArrayList<>();
+        path.add(map.locationAt(origin));
+        for (int i = 0; i + 1 < waypoints.size(); i++) {
+            int to = waypoints.get(i + 1);
+            if (to != target && map.entityAt(to) != null) {
+                return emptyList();
+            }
+            int[] segmentBounds = bounds[i];
+            List<Location> segment = GridAStar.findPath(map,
+                    map.locationAt(waypoints.get(i)),
+                    map.locationAt(to),
+                    (x, y) -> x >= segmentBounds[0] && y >= segmentBounds[1]
+                            && x <= segmentBounds[2] && y <= segmentBounds[3],
+                    Integer.MAX_VALUE);
+            if (segment.isEmpty()) {
+                return emptyList();
+            }
+            path.addAll(segment.subList(1, segment.size()));
+        }
+        return path;
+    }
+
+    private ClusterGraph graphFor(WorldMap map) {
+        if (graphMap != map) {
+            if (graph != null) {
+                graph.detach();
+            }
+            graph = new ClusterGraph(map, clusterSize);
+            graphMap = map;
+        }
+        return graph;
+    }
+
+    private Location nearestKnownTarget(WorldMap map, Location originalLocation, EntityType goalType) {
+        return map.getSpatialIndex().nearestWithin(originalLocation, goalType, Integer.MAX_VALUE);
+    }
+}
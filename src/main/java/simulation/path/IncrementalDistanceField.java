@@ -0,0 +1,218 @@
+package simulation.path;
+
+import simulation.entity.Entity;
+import simulation.entity.EntityType;
+import simulation.map.Direction;
+import simulation.map.Location;
+import simulation.map.WorldMap;
+import simulation.map.WorldMapListener;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link DistanceField} kept exact under map mutations. Each add or remove repairs only the cells whose
+ * distance depended on the changed cell:
+ * <ul>
+ *     <li>decrease (a goal appeared, a wall disappeared) - BFS relaxation outwards from the cell;</li>
+ *     <li>increase (a goal disappeared, a wall appeared) - cells that lost every neighbour one step closer
+ *     to a goal are invalidated, then re-seeded from their still valid neighbours and relaxed again
+ *     in distance order.</li>
+ * </ul>
+ */
+class IncrementalDistanceField extends DistanceField implements WorldMapListener {
+    private final int[] marks;
+    private final int[] affected;
+    private final int[] affectedOldDistances;
+    private final long[] seeds;
+    private int stamp;
+
+    IncrementalDistanceField(WorldMap map, EntityType goalType) {
+        super(map, goalType);
+        this.marks = new int[distances.length];
+        this.affected = new int[distances.length];
+        this.affectedOldDistances = new int[distances.length];
+        this.seeds = new long[distances.length];
+        rebuild();
+        map.addListener(this);
+    }
+
+    void detach() {
+        map.removeListener(this);
+    }
+
+    @Override
+    public synchronized void onEntityAdded(Location location, Entity entity) {
+        int index = map.toIndex(location.x(), location.y());
+        if (goalType.matches(entity)) {
+            distances[index] = 0;
+            queue[0] = index;
+            relax(0, 1);
+        } else {
+            raise(index);
+        }
+    }
+
+    @Override
+    public synchronized void onEntityRemoved(Location location, Entity entity) {
+        int index = map.toIndex(location.x(), location.y());
+        if (goalType.matches(entity)) {
+            raise(index);
+        } else if (isGoal(index)) {
+            distances[index] = 0;
+            queue[0] = index;
+            relax(0, 1);
+        } else {
+            int tentative = closestNeighbourDistance(index);
+            if (tentative != UNREACHABLE) {
+                distances[index] = tentative + 1;
+                queue[0] = index;
+                relax(0, 1);
+            }
+        }
+    }
+
+    /**
+     * Layer grass is a goal on a free cell; while an entity covers it the cell is a wall and the entity
+     * events keep the field right.
+     */
+    @Override
+    public synchronized void onGrassChanged(Location location, int oldNutrition, int newNutrition) {
+        int index = map.toIndex(location.x(), location.y());
+        if (goalType != EntityType.GRASS || map.entityAt(index) != null) {
+            return;
+        }
+        if (newNutrition > 0) {
+            distances[index] = 0;
+            queue[0] = index;
+            relax(0, 1);
+        } else {
+            raise(index);
+        }
+    }
+
+    private void raise(int changed) {
+        nextStamp();
+        int count = 0;
+        affectedOldDistances[count] = distances[changed];
+        affected[count++] = changed;
+        marks[changed] = stamp;
+        distances[changed] = UNREACHABLE;
+
+        int width = map.getWidth();
+        List<Direction> directions = Direction.NEIGHBOUR_ORDER;
+        for (int cursor = 0; cursor < count; cursor++) {
+            int current = affected[cursor];
+            int oldDistance = affectedOldDistances[cursor];
+            if (oldDistance == UNREACHABLE) {
+                continue;
+            }
+            int x = current % width;
+            int y = current / width;
+            for (int i = 0; i < directions.size(); i++) {
+                Direction direction = directions.get(i);
+                if (!map.isInsideMap(x + direction.getX(), y + direction.getY())) {
+                    continue;
+                }
+                int neighbour = current + direction.getY() * width + direction.getX();
+                if (marks[neighbour] == stamp || distances[neighbour] != oldDistance + 1) {
+                    continue;
+                }
+                if (closestNeighbourDistance(neighbour) == oldDistance) {
+                    continue;
+                }
+                affectedOldDistances[count] = distances[neighbour];
+                affected[count++] = neighbour;
+                marks[neighbour] = stamp;
+                distances[neighbour] = UNREACHABLE;
+            }
+        }
+
+        int seedCount = 0;
+        for (int cursor = 0; cursor < count; cursor++) {
+            int cell = affected[cursor];
+            if (map.entityAt(cell) != null) {
+                continue;
+            }
+            int tentative = closestNeighbourDistance(cell);
+            if (tentative != UNREACHABLE) {
+                distances[cell] = tentative + 1;
+                seeds[seedCount++] = ((long) distances[cell] << 32) | cell;
+            }
+        }
+        Arrays.sort(seeds, 0, seedCount);
+        relaxSeeds(seedCount);
+    }
+
+    /**
+     * Merges the sorted seeds with the FIFO queue so cells are always expanded in non-decreasing distance.
+     */
+    private void relaxSeeds(int seedCount) {
+        int seedCursor = 0;
+        int head = 0;
+        int tail = 0;
+        while (seedCursor < seedCount || head < tail) {
+            int current;
+            if (head == tail || (seedCursor < seedCount && (int) (seeds[seedCursor] >>> 32) <= distances[queue[head]])) {
+                long seed = seeds[seedCursor++];
+                current = (int) seed;
+                if (distances[current] != (int) (seed >>> 32)) {
+                    continue;
+                }
+            } else {
+                current = queue[head++];
+            }
+            tail = expand(current, tail);
+        }
+    }
+
+    private void relax(int head, int tail) {
+        while (head < tail) {
+            tail = expand(queue[head++], tail);
+        }
+    }
+
+    private int expand(int current, int tail) {
+        int width = map.getWidth();
+        int x = current % width;
+        int y = current / width;
+        int candidate = distances[current] + 1;
+        List<Direction> directions = Direction.NEIGHBOUR_ORDER;
+        for (int i = 0; i < directions.size(); i++) {
+            Direction direction = directions.get(i);
+            if (!map.isInsideMap(x + direction.getX(), y + direction.getY())) {
+                continue;
+            }
+            int neighbour = current + direction.getY() * width + direction.getX();
+            if (distances[neighbour] > candidate && map.entityAt(neighbour) == null) {
+                distances[neighbour] = candidate;
+                queue[tail++] = neighbour;
+            }
+        }
+        return tail;
+    }
+
+    private int closestNeighbourDistance(int index) {
+        int width = map.getWidth();
+        int x = index % width;
+        int y = index / width;
+        int closest = UNREACHABLE;
+        List<Direction> directions = Direction.NEIGHBOUR_ORDER;
+        for (int i = 0; i < directions.size(); i++) {
+            Direction direction = directions.get(i);
+            if (!map.isInsideMap(x + direction.getX(), y + direction.getY())) {
+                continue;
+            }
+            closest = Math.min(closest, distances[index + direction.getY() * width + direction.getX()]);
+        }
+        return closest;
+    }
+
+    private void nextStamp() {
+        stamp++;
+        if (stamp == 0) {
+            Arrays.fill(marks, 0);
+            stamp = 1;
+        }
+    }
+}
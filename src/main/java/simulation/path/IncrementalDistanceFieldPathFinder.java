@@ -0,0 +1,69 @@
+package simulation.path;
+
+import simulation.entity.EntityType;
+import simulation.map.Location;
+import simulation.map.WorldMap;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps one {@link IncrementalDistanceField} per goal type subscribed to the map, so a query is a gradient
+ * descent and the search work is proportional to how much the map changed since the previous query.
+ * Fields are built on the first query for a type; untyped queries go to {@link IndexedBFSPathFinder}.
+ */
+public class IncrementalDistanceFieldPathFinder implements PathFinder {
+    private final PathFinder fallback = new IndexedBFSPathFinder();
+    private final Map<EntityType, IncrementalDistanceField> fields = new EnumMap<>(EntityType.class);
+    private WorldMap fieldsMap;
+
+    @Override
+    public List<Location> findPath(WorldMap map,
+                                   Location originalLocation,
+                                   int goalMask) {
+        return fallback.findPath(map, originalLocation, goalMask);
+    }
+
+    @Override
+    public List<Location> findPath(WorldMap map,
+                                   Location originalLocation,
+                                   EntityType goalType) {
+        List<Location> path = fieldFor(map, goalType).firstStep(originalLocation);
+        if (path == null) {
+            return fallback.findPath(map, originalLocation, goalType.mask());
+        }
+        return path;
+    }
+
+    @Override
+    public Map<Location, List<Location>> findPaths(WorldMap map,
+                                                   Collection<Location> origins,
+                                                   EntityType goalType) {
+        IncrementalDistanceField field = fieldFor(map, goalType);
+        Map<Location, List<Location>> paths = new LinkedHashMap<>();
+        for (Location origin : origins) {
+            List<Location> path = field.descend(origin);
+            paths.put(origin, path != null ? path : fallback.findPath(map, origin, goalType.mask()));
+        }
+        return paths;
+    }
+
+    @Override
+    public boolean supportsBatch() {
+        return true;
+    }
+
+    private synchronized IncrementalDistanceField fieldFor(WorldMap map, EntityType goalType) {
+        if (fieldsMap != map) {
+            for (IncrementalDistanceField field : fields.values()) {
+                field.detach();
+            }
+            fields.clear();
+            fieldsMap = map;
+        }
+        return fields.computeIfAbsent(goalType, type -> new IncrementalDistanceField(map, type));
+    }
+}
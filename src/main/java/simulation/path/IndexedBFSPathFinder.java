@@ -0,0 +1,153 @@
+package simulation.path;
+
+import simulation.entity.EntityType;
+import simulation.map.Direction;
+import simulation.map.Location;
+import simulation.map.WorldMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Same search as {@link BFSPathFinder} (same neighbour order, same tie-breaking, same result),
+ * but over int cell indices with primitive scratch arrays reused across calls on the same thread.
+ * With batching switched on, batches run one reverse BFS from all goals and descend it from every origin;
+ * those paths are equally short but may break ties differently from the single query, so batching is off
+ * by default.
+ */
+public class IndexedBFSPathFinder implements PathFinder {
+    static final int NO_PARENT = -1;
+
+    private final boolean batch;
+    private final Map<EntityType, DistanceField> batchFields = new EnumMap<>(EntityType.class);
+    private WorldMap batchFieldsMap;
+
+    public IndexedBFSPathFinder() {
+        this(false);
+    }
+
+    /**
+     * @param batch whether {@link #findPaths} shares one reverse search between all origins
+     */
+    public IndexedBFSPathFinder(boolean batch) {
+        this.batch = batch;
+    }
+
+    @Override
+    public List<Location> findPath(WorldMap map,
+                                   Location originalLocation,
+                                   int goalMask) {
+        int width = map.getWidth();
+        int height = map.getHeight();
+        SearchScratch scratch = SearchScratch.forCurrentThread();
+        int stamp = scratch.prepare(width * height);
+        int[] visited = scratch.visited;
+        int[] parent = scratch.parent;
+        int[] queue = scratch.queue;
+        int capacity = width * height;
+
+        int origin = map.toIndex(originalLocation.x(), originalLocation.y());
+        visited[origin] = stamp;
+        parent[origin] = NO_PARENT;
+        int head = 0;
+        int tail = 0;
+        int queued = 0;
+        queue[tail] = origin;
+        tail = next(tail, capacity);
+        queued++;
+
+        List<Direction> directions = Direction.NEIGHBOUR_ORDER;
+        while (queued > 0) {
+            int current = queue[head];
+            head = next(head, capacity);
+            queued--;
+
+            if (map.holdsAnyOf(current, goalMask)) {
+                return reconstructPath(map, parent, current);
+            }
+
+            int x = current % width;
+            int y = current / width;
+            for (int i = 0; i < directions.size(); i++) {
+                Direction direction = directions.get(i);
+                int neighbourX = x + direction.getX();
+                int neighbourY = y + direction.getY();
+                if (!map.isInsideMap(neighbourX, neighbourY)) {
+                    continue;
+                }
+                int neighbour = current + direction.getY() * width + direction.getX();
+                if (visited[neighbour] == stamp) {
+                    continue;
+                }
+
+                if (map.holdsAnyOf(neighbour, goalMask)) {
+                    parent[neighbour] = current;
+                    return reconstructPath(map, parent, neighbour);
+                }
+
+                if (map.entityAt(neighbour) != null) {
+                    continue;
+                }
+                visited[neighbour] = stamp;
+                parent[neighbour] = current;
+                queue[tail] = neighbour;
+                tail = next(tail, capacity);
+                queued++;
+            }
+        }
+
+        return emptyList();
+    }
+
+    @Override
+    public Map<Location, List<Location>> findPaths(WorldMap map,
+                                                   Collection<Location> origins,
+                                                   EntityType goalType) {
+        if (!batch) {
+            return PathFinder.super.findPaths(map, origins, goalType);
+        }
+        DistanceField field = batchFieldFor(map, goalType);
+        field.rebuild();
+        Map<Location, List<Location>> paths = new LinkedHashMap<>();
+        for (Location origin : origins) {
+            paths.put(origin, field.descend(origin));
+        }
+        return paths;
+    }
+
+    @Override
+    public boolean supportsBatch() {
+        return batch;
+    }
+
+    /**
+     * One field per goal type, rebuilt by every batch rather than allocated anew.
+     */
+    private synchronized DistanceField batchFieldFor(WorldMap map, EntityType goalType) {
+        if (batchFieldsMap != map) {
+            batchFields.clear();
+            batchFieldsMap = map;
+        }
+        return batchFields.computeIfAbsent(goalType, type -> new DistanceField(map, type));
+    }
+
+    private static int next(int position, int capacity) {
+        return position + 1 == capacity ? 0 : position + 1;
+    }
+
+    static List<Location> reconstructPath(WorldMap map, int[] parent, int goal) {
+        List<Location> path = new ArrayList<>();
+        for (int current = goal; current != NO_PARENT; current = parent[current]) {
+            path.add(map.locationAt(current));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
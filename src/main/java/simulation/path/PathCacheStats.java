@@ -0,0 +1,34 @@
+package simulation.path;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often a creature could keep following its previous path (hit) and how often it had to ask
+ * the {@link PathFinder} again (miss).
+ */
+public class PathCacheStats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = getHits();
+        long total = hitCount + getMisses();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+}
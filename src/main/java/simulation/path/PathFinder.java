@@ -1,14 +1,59 @@
 package simulation.path;
 
-import simulation.entity.Entity;
+import simulation.entity.EntityType;
 import simulation.map.Location;
 import simulation.map.WorldMap;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.Map;
 
 public interface PathFinder {
+    /**
+     * Search for the nearest entity whose type is in {@code goalMask}, an OR of {@link EntityType#mask()} values.
+     */
     List<Location> findPath(WorldMap map,
                             Location originalLocation,
-                            Predicate<Entity> isGoal);
+                            int goalMask);
+
+    /**
+     * Search for the nearest entity of a known type; implementations may share work between callers
+     * looking for the same type.
+     */
+    default List<Location> findPath(WorldMap map,
+                                    Location originalLocation,
+                                    EntityType goalType) {
+        return findPath(map, originalLocation, goalType.mask());
+    }
+
+    /**
+     * Paths for several creatures looking for the same type, answered against one state of the map.
+     * The default adapter runs {@link #findPath(WorldMap, Location, EntityType)} per origin; implementations
+     * reporting {@link #supportsBatch()} share one reverse search from the goals between all origins.
+     *
+     * @return a path (possibly empty) for every origin, in the iteration order of {@code origins}
+     */
+    default Map<Location, List<Location>> findPaths(WorldMap map,
+                                                    Collection<Location> origins,
+                                                    EntityType goalType) {
+        Map<Location, List<Location>> paths = new LinkedHashMap<>();
+        for (Location origin : origins) {
+            paths.put(origin, findPath(map, origin, goalType));
+        }
+        return paths;
+    }
+
+    /**
+     * @return {@code true} if {@link #findPaths} costs less than one single query per origin
+     */
+    default boolean supportsBatch() {
+        return false;
+    }
+
+    /**
+     * Called once before creatures move; lets implementations drop state computed for the previous turn.
+     */
+    default void onTurnStart(WorldMap map) {
+    }
 }
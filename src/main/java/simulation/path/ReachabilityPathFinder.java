@@ -0,0 +1,88 @@
+package simulation.path;
+
+import simulation.entity.EntityType;
+import simulation.map.Location;
+import simulation.map.WorldMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Wraps another {@link PathFinder} and answers typed queries with an empty path in O(1) when rocks and trees
+ * wall the creature into a region with no entity of the goal type, instead of flooding that region.
+ */
+public class ReachabilityPathFinder implements PathFinder {
+    private final PathFinder delegate;
+    private StaticComponents components;
+    private WorldMap componentsMap;
+
+    public ReachabilityPathFinder(PathFinder delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate path finder cannot be null");
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<Location> findPath(WorldMap map,
+                                   Location originalLocation,
+                                   int goalMask) {
+        return delegate.findPath(map, originalLocation, goalMask);
+    }
+
+    @Override
+    public List<Location> findPath(WorldMap map,
+                                   Location originalLocation,
+                                   EntityType goalType) {
+        if (!isGoalReachable(map, originalLocation, goalType)) {
+            return emptyList();
+        }
+        return delegate.findPath(map, originalLocation, goalType);
+    }
+
+    @Override
+    public Map<Location, List<Location>> findPaths(WorldMap map,
+                                                  Collection<Location> origins,
+                                                  EntityType goalType) {
+        List<Location> reachable = new ArrayList<>(origins.size());
+        for (Location origin : origins) {
+            if (isGoalReachable(map, origin, goalType)) {
+                reachable.add(origin);
+            }
+        }
+        Map<Location, List<Location>> delegatePaths = reachable.isEmpty()
+                ? Map.of()
+                : delegate.findPaths(map, reachable, goalType);
+        Map<Location, List<Location>> paths = new LinkedHashMap<>();
+        for (Location origin : origins) {
+            paths.put(origin, delegatePaths.getOrDefault(origin, emptyList()));
+        }
+        return paths;
+    }
+
+    @Override
+    public boolean supportsBatch() {
+        return delegate.supportsBatch();
+    }
+
+    @Override
+    public void onTurnStart(WorldMap map) {
+        delegate.onTurnStart(map);
+    }
+
+    private synchronized boolean isGoalReachable(WorldMap map, Location originalLocation, EntityType goalType) {
+        if (componentsMap != map) {
+            if (components != null) {
+                components.detach();
+            }
+            components = new StaticComponents(map);
+            componentsMap = map;
+        }
+        return components.isPresentInComponent(originalLocation, goalType);
+    }
+}
@@ -0,0 +1,16 @@
+package simulation.path;
+
+/**
+ * Bounds for {@link BoundedPathFinder}: how far a creature can see (Manhattan distance from its cell)
+ * and how many nodes one search may expand before giving up.
+ */
+public record SearchLimits(int perceptionRadius, int maxExpandedNodes) {
+    public SearchLimits {
+        if (perceptionRadius <= 0) {
+            throw new IllegalArgumentException("perceptionRadius must be positive");
+        }
+        if (maxExpandedNodes <= 0) {
+            throw new IllegalArgumentException("maxExpandedNodes must be positive");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package simulation.path;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread primitive buffers shared by the index-based searches. Visited marks are generation stamps,
+ * so a new search only bumps the stamp instead of clearing arrays.
+ */
+final class SearchScratch {
+    private static final ThreadLocal<SearchScratch> SCRATCH = ThreadLocal.withInitial(SearchScratch::new);
+
+    int[] visited = new int[0];
+    int[] parent = new int[0];
+    int[] queue = new int[0];
+    int[] cost = new int[0];
+    long[] heap = new long[16];
+    int stamp;
+
+    private SearchScratch() {
+    }
+
+    static SearchScratch forCurrentThread() {
+        return SCRATCH.get();
+    }
+
+    int prepare(int cellCount) {
+        if (visited.length < cellCount) {
+            visited = new int[cellCount];
+            parent = new int[cellCount];
+            queue = new int[cellCount];
+            cost = new int[cellCount];
+            stamp = 0;
+        }
+        stamp++;
+        if (stamp == 0) {
+            Arrays.fill(visited, 0);
+            stamp = 1;
+        }
+        return stamp;
+    }
+
+    /**
+     * Binary min-heap of {@code priority << 32 | cell} in {@link #heap}; equal priorities pop in cell order.
+     *
+     * @return the new heap size
+     */
+    int pushHeap(int size, int priority, int cell) {
+        if (heap.length < size + 1) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+        long entry = ((long) priority << 32) | cell;
+        int position = size;
+        while (position > 0) {
+            int parentPosition = (position - 1) >>> 1;
+            if (heap[parentPosition] <= entry) {
+                break;
+            }
+            heap[position] = heap[parentPosition];
+            position = parentPosition;
+        }
+        heap[position] = entry;
+        return size + 1;
+    }
+
+    int peekHeapCell() {
+        return (int) heap[0];
+    }
+
+    int popHeap(int size) {
+        int last = size - 1;
+        long entry = heap[last];
+        int position = 0;
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= last) {
+                break;
+            }
+            if (child + 1 < last && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= entry) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = entry;
+        return last;
+    }
+}
@@ -0,0 +1,135 @@
+package simulation.path;
+
+import simulation.entity.Entity;
+import simulation.entity.EntityType;
+import simulation.map.Direction;
+import simulation.map.Location;
+import simulation.map.WorldMap;
+import simulation.map.WorldMapListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Connected components of the cells not taken by rocks or trees, with a live count of every entity type
+ * per component. Creatures, grass and herbivores only change the counts; a rock or tree added or removed
+ * invalidates the labelling, which is recomputed on the next query.
+ */
+final class StaticComponents implements WorldMapListener {
+    private static final int OBSTACLE = -1;
+    private static final int UNLABELLED = -2;
+
+    private final WorldMap map;
+    private final int[] labels;
+    private final int[] queue;
+    private final List<int[]> counts = new ArrayList<>();
+    private boolean dirty = true;
+
+    StaticComponents(WorldMap map) {
+        this.map = map;
+        this.labels = new int[map.getWidth() * map.getHeight()];
+        this.queue = new int[labels.length];
+        map.addListener(this);
+    }
+
+    void detach() {
+        map.removeListener(this);
+    }
+
+    @Override
+    public synchronized void onEntityAdded(Location location, Entity entity) {
+        if (isStaticObstacle(entity)) {
+            dirty = true;
+        } else if (!dirty) {
+            counts.get(labels[map.toIndex(location.x(), location.y())])[entity.getType().ordinal()]++;
+        }
+    }
+
+    @Override
+    public synchronized void onEntityRemoved(Location location, Entity entity) {
+        if (isStaticObstacle(entity)) {
+            dirty = true;
+        } else if (!dirty) {
+            counts.get(labels[map.toIndex(location.x(), location.y())])[entity.getType().ordinal()]--;
+        }
+    }
+
+    @Override
+    public synchronized void onGrassChanged(Location location, int oldNutrition, int newNutrition) {
+        if (!dirty) {
+            int delta = (newNutrition > 0 ? 1 : 0) - (oldNutrition > 0 ? 1 : 0);
+            counts.get(labels[map.toIndex(location.x(), location.y())])[EntityType.GRASS.ordinal()] += delta;
+        }
+    }
+
+    /**
+     * @return whether at least one entity of the type shares the static-terrain component of the cell
+     */
+    synchronized boolean isPresentInComponent(Location location, EntityType type) {
+        if (dirty) {
+            relabel();
+        }
+        int label = labels[map.toIndex(location.x(), location.y())];
+        return label != OBSTACLE && counts.get(label)[type.ordinal()] > 0;
+    }
+
+    private void relabel() {
+        Arrays.fill(labels, UNLABELLED);
+        counts.clear();
+        for (int cell = 0; cell < labels.length; cell++) {
+            if (labels[cell] != UNLABELLED) {
+                continue;
+            }
+            if (isStaticObstacle(map.entityAt(cell))) {
+                labels[cell] = OBSTACLE;
+                continue;
+            }
+            flood(cell, counts.size());
+        }
+        dirty = false;
+    }
+
+    private void flood(int start, int label) {
+        int width = map.getWidth();
+        int[] typeCounts = new int[EntityType.values().length];
+        counts.add(typeCounts);
+        int head = 0;
+        int tail = 0;
+        labels[start] = label;
+        queue[tail++] = start;
+        List<Direction> directions = Direction.NEIGHBOUR_ORDER;
+        while (head < tail) {
+            int current = queue[head++];
+            Entity entity = map.entityAt(current);
+            if (entity != null) {
+                typeCounts[entity.getType().ordinal()]++;
+            }
+            if (map.grassAt(current) > 0) {
+                typeCounts[EntityType.GRASS.ordinal()]++;
+            }
+            int x = current % width;
+            int y = current / width;
+            for (int i = 0; i < directions.size(); i++) {
+                Direction direction = directions.get(i);
+                if (!map.isInsideMap(x + direction.getX(), y + direction.getY())) {
+                    continue;
+                }
+                int neighbour = current + direction.getY() * width + direction.getX();
+                if (labels[neighbour] != UNLABELLED) {
+                    continue;
+                }
+                if (isStaticObstacle(map.entityAt(neighbour))) {
+                    labels[neighbour] = OBSTACLE;
+                    continue;
+                }
+                labels[neighbour] = label;
+                queue[tail++] = neighbour;
+            }
+        }
+    }
+
+    private static boolean isStaticObstacle(Entity entity) {
+        return entity != null && entity.getType().isImmovable();
+    }
+}
@@ -1,11 +1,8 @@
 package simulation.renderer;
 
-import simulation.entity.*;
-import simulation.map.Location;
+import simulation.entity.Entity;
 import simulation.map.WorldMap;
 
-import java.util.Optional;
-
 public class ConsoleRenderer implements Renderer {
     private static final String EMPTY_CELL = " . ";
     private static final String ROCK_CELL = " r ";
@@ -22,15 +19,13 @@ public class ConsoleRenderer implements Renderer {
 
     @Override
     public void draw() {
-        Location location;
         for (int y = 0; y < map.getHeight(); y++) {
             for (int x = 0; x < map.getWidth(); x++) {
-                location = new Location(x, y);
-                Optional<Entity> entity = map.getEntity(location);
-                if (entity.isEmpty()) {
-                    System.out.print(EMPTY_CELL);
+                Entity entity = map.entityAt(x, y);
+                if (entity == null) {
+                    System.out.print(map.grassAt(x, y) > 0 ? GRASS_CELL : EMPTY_CELL);
                 } else {
-                    System.out.print(toSprite(entity.get()));
+                    System.out.print(toSprite(entity));
                 }
             }
             System.out.println();
@@ -39,22 +34,12 @@ public class ConsoleRenderer implements Renderer {
     }
 
     private String toSprite(Entity entity) {
-        if (entity instanceof Rock) {
-            return ROCK_CELL;
-        }
-        if (entity instanceof Tree) {
-            return TREE_CELL;
-        }
-        if (entity instanceof Grass) {
-            return GRASS_CELL;
-        }
-        if (entity instanceof Herbivore) {
-            return HERBIVORE_CELL;
-        }
-        if (entity instanceof Predator) {
-            return PREDATOR_CELL;
-        }
-        throw new IllegalStateException("illegal sprite is found while getting it");
+        return switch (entity.getType()) {
+            case ROCK -> ROCK_CELL;
+            case TREE -> TREE_CELL;
+            case GRASS -> GRASS_CELL;
+            case HERBIVORE -> HERBIVORE_CELL;
+            case PREDATOR -> PREDATOR_CELL;
+        };
     }
 }
-
@@ -0,0 +1,10 @@
+package simulation.renderer;
+
+/**
+ * Draws nothing; for headless runs where only the numbers matter.
+ */
+public class NoOpRenderer implements Renderer {
+    @Override
+    public void draw() {
+    }
+}
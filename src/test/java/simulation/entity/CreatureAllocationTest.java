@@ -0,0 +1,121 @@
+package simulation.entity;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import simulation.map.Location;
+import simulation.map.WorldMap;
+import simulation.path.IndexedBFSPathFinder;
+import simulation.path.PathCacheStats;
+import simulation.path.PathFinder;
+import simulation.path.ReachabilityPathFinder;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Heap bytes allocated per creature step once the JIT has warmed up, for roaming (no goal anywhere) and for
+ * following a cached path.
+ */
+class CreatureAllocationTest {
+    private static final int SIDE = 200;
+    private static final int HERBIVORES = 2_000;
+    private static final int ROCKS = 4_000;
+    private static final int WARMUP_ROUNDS = 1_000;
+    private static final int MEASURED_ROUNDS = 200;
+    private static final int CORRIDOR_LENGTH = 4_000;
+    private static final int WARMUP_WALKS = 20;
+    private static final long SEED = 42L;
+
+    private static com.sun.management.ThreadMXBean threads;
+
+    @BeforeAll
+    static void requireAllocationCounters() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "per-thread allocation counters are not available");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "per-thread allocation counters are not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /**
+     * Herbivores on a map without grass: the path finder gives up at once and every step is a roaming step.
+     */
+    @Test
+    void roamingStepAllocatesNothing() {
+        WorldMap map = new WorldMap(SIDE, SIDE);
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (Location location : map.sampleFreeLocations(ROCKS, random)) {
+            map.tryAddEntity(location, new Rock());
+        }
+        List<Creature> creatures = new ArrayList<>();
+        for (Location location : map.sampleFreeLocations(HERBIVORES, random)) {
+            Herbivore herbivore = new Herbivore(1, 10, 10);
+            map.tryAddEntity(location, herbivore);
+            creatures.add(herbivore);
+        }
+        Creature[] movers = creatures.toArray(new Creature[0]);
+        PathFinder pathFinder = new ReachabilityPathFinder(new IndexedBFSPathFinder());
+        PathCacheStats stats = new PathCacheStats();
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            moveAll(map, movers, pathFinder, stats, random);
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            moveAll(map, movers, pathFinder, stats, random);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat((double) allocated / ((long) MEASURED_ROUNDS * movers.length)).isZero();
+    }
+
+    /**
+     * One herbivore walking a one-cell-wide corridor towards grass at its far end; the path is found before
+     * the measurement, so each measured step is a cache hit. The first walks warm the JIT up.
+     */
+    @Test
+    void cachedPathStepAllocatesNothing() {
+        for (int walk = 0; walk < WARMUP_WALKS; walk++) {
+            walkCorridor();
+        }
+
+        assertThat(walkCorridor()).isZero();
+    }
+
+    private static void moveAll(WorldMap map,
+                                Creature[] movers,
+                                PathFinder pathFinder,
+                                PathCacheStats stats,
+                                SplittableRandom random) {
+        for (Creature creature : movers) {
+            creature.makeMove(map, map.getCreatureLocation(creature), pathFinder, stats, random);
+        }
+    }
+
+    /**
+     * @return bytes allocated per step
+     */
+    private static double walkCorridor() {
+        WorldMap map = new WorldMap(CORRIDOR_LENGTH, 1);
+        Herbivore herbivore = new Herbivore(1, 10, 10);
+        map.tryAddEntity(map.locationAt(0, 0), herbivore);
+        map.tryAddEntity(map.locationAt(CORRIDOR_LENGTH - 1, 0), new Grass(1));
+        PathFinder pathFinder = new IndexedBFSPathFinder();
+        PathCacheStats stats = new PathCacheStats();
+        SplittableRandom random = new SplittableRandom(SEED);
+        herbivore.makeMove(map, map.getCreatureLocation(herbivore), pathFinder, stats, random);
+
+        int steps = CORRIDOR_LENGTH - 3;
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int step = 0; step < steps; step++) {
+            herbivore.makeMove(map, map.getCreatureLocation(herbivore), pathFinder, stats, random);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        return (double) allocated / steps;
+    }
+}